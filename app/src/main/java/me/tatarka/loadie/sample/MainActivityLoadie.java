@@ -17,6 +17,7 @@ import java.util.TimerTask;
 import me.tatarka.loadie.AsyncTaskLoader;
 import me.tatarka.loadie.Loader;
 import me.tatarka.loadie.LoaderManager;
+import me.tatarka.loadie.LongLoader;
 import me.tatarka.loadie.component.LoaderManagerProvider;
 
 /**
@@ -82,11 +83,11 @@ public class MainActivityLoadie extends AppCompatActivity {
 
     private void loader3() {
         final TextView loader3Text = (TextView) findViewById(R.id.loader3);
-        loader3 = loaderManager.init(LOADER3, CurrentTimeLoader.CREATE, new Loader.CallbacksAdapter<Long>() {
+        loader3 = loaderManager.init(LOADER3, CurrentTimeLoader.CREATE, new LongLoader.LongCallbacksAdapter() {
             SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm:ss a", Locale.US);
 
             @Override
-            public void onLoaderResult(Long result) {
+            public void onLoaderResult(long result) {
                 loader3Text.setText(timeFormat.format(new Date(result)));
             }
         });
@@ -181,7 +182,7 @@ public class MainActivityLoadie extends AppCompatActivity {
         }
     }
 
-    public static class CurrentTimeLoader extends Loader<Long> {
+    public static class CurrentTimeLoader extends LongLoader {
 
         public static Create<CurrentTimeLoader> CREATE = new Create<CurrentTimeLoader>() {
             @Override
@@ -194,16 +195,17 @@ public class MainActivityLoadie extends AppCompatActivity {
         TimerTask timerTask;
 
         @Override
-        protected void onStart(final Receiver receiver) {
+        protected void onStart(final LongReceiver receiver) {
+            final Runnable deliverTime = new Runnable() {
+                @Override
+                public void run() {
+                    receiver.result(System.currentTimeMillis());
+                }
+            };
             timerTask = new TimerTask() {
                 @Override
                 public void run() {
-                    handler.post(new Runnable() {
-                        @Override
-                        public void run() {
-                            receiver.result(System.currentTimeMillis());
-                        }
-                    });
+                    handler.post(deliverTime);
                 }
             };
             new Timer().schedule(timerTask, 0, 1000);
@@ -0,0 +1,46 @@
+package me.tatarka.loadie.benchmark;
+
+import me.tatarka.loadie.Loader;
+
+/**
+ * A loader that does no work of it's own, results are pushed through {@link #receiver()} by the
+ * benchmark. If {@code synchronous} is set, a result is delivered immediately in {@link
+ * #onStart(Receiver)}, which goes through the async dispatch path.
+ */
+public class BenchmarkLoader extends Loader<Object> {
+
+    public static Create<BenchmarkLoader> create(final boolean synchronous) {
+        return new Create<BenchmarkLoader>() {
+            @Override
+            public BenchmarkLoader create() {
+                return new BenchmarkLoader(synchronous);
+            }
+        };
+    }
+
+    static final Object RESULT = new Object();
+
+    private final boolean synchronous;
+    private Receiver receiver;
+
+    public BenchmarkLoader(boolean synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        this.receiver = receiver;
+        if (synchronous) {
+            receiver.success(RESULT);
+        }
+    }
+
+    @Override
+    protected void onCancel() {
+        receiver = null;
+    }
+
+    public Receiver receiver() {
+        return receiver;
+    }
+}
@@ -0,0 +1,37 @@
+package me.tatarka.loadie.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.tatarka.loadie.Loader;
+
+/**
+ * Callbacks that hand everything to a {@link Blackhole} so the deliveries can't be optimized away.
+ */
+public class BlackholeCallbacks implements Loader.Callbacks<Object> {
+
+    private final Blackhole blackhole;
+
+    public BlackholeCallbacks(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void onLoaderStart() {
+        blackhole.consume(0);
+    }
+
+    @Override
+    public void onLoaderResult(Object result) {
+        blackhole.consume(result);
+    }
+
+    @Override
+    public void onLoaderError(Throwable error) {
+        blackhole.consume(error);
+    }
+
+    @Override
+    public void onLoaderSuccess() {
+        blackhole.consume(1);
+    }
+}
@@ -0,0 +1,124 @@
+package me.tatarka.loadie.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the {@link me.tatarka.loadie.Loader} hot paths. Each op runs over all {@code
+ * loaderCount} loaders, divide by it to get the per-loader cost.
+ */
+@State(Scope.Thread)
+public class LoaderBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int loaderCount;
+
+    BenchmarkLoader[] loaders;
+    BenchmarkLoader[] syncLoaders;
+    BenchmarkLoader[] conflatedLoaders;
+    BlackholeCallbacks callbacks;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        callbacks = new BlackholeCallbacks(blackhole);
+        loaders = new BenchmarkLoader[loaderCount];
+        syncLoaders = new BenchmarkLoader[loaderCount];
+        conflatedLoaders = new BenchmarkLoader[loaderCount];
+        for (int i = 0; i < loaderCount; i++) {
+            BenchmarkLoader loader = new BenchmarkLoader(false);
+            loader.setCallbacks(callbacks);
+            loader.start();
+            loader.receiver().result(BenchmarkLoader.RESULT);
+            loaders[i] = loader;
+
+            BenchmarkLoader syncLoader = new BenchmarkLoader(true);
+            syncLoader.setCallbacks(callbacks);
+            syncLoaders[i] = syncLoader;
+
+            BenchmarkLoader conflatedLoader = new BenchmarkLoader(false);
+            conflatedLoader.setConflateResults(true);
+            conflatedLoader.setCallbacks(callbacks);
+            conflatedLoader.start();
+            conflatedLoaders[i] = conflatedLoader;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = 0; i < loaderCount; i++) {
+            loaders[i].destroy();
+            syncLoaders[i].destroy();
+            conflatedLoaders[i].destroy();
+        }
+    }
+
+    /**
+     * {@code Loader.restart()}, which is {@code cancel()} followed by {@code start()}.
+     */
+    @Benchmark
+    public void restart() {
+        for (BenchmarkLoader loader : loaders) {
+            loader.restart();
+        }
+    }
+
+    /**
+     * {@code Receiver.result()} on a running loader with callbacks attached.
+     */
+    @Benchmark
+    public void result() {
+        for (BenchmarkLoader loader : loaders) {
+            loader.receiver().result(BenchmarkLoader.RESULT);
+        }
+    }
+
+    /**
+     * {@code Receiver.result()} on a loader conflating results to once per frame. Frames run
+     * immediately here so this measures the overhead of going through the frame dispatcher.
+     */
+    @Benchmark
+    public void conflatedResult() {
+        for (BenchmarkLoader loader : conflatedLoaders) {
+            loader.receiver().result(BenchmarkLoader.RESULT);
+        }
+    }
+
+    /**
+     * {@code Receiver.success()} followed by a restart so the loader is running again.
+     */
+    @Benchmark
+    public void success() {
+        for (BenchmarkLoader loader : loaders) {
+            loader.receiver().success();
+            loader.restart();
+        }
+    }
+
+    /**
+     * A restart of a loader that delivers it's result inside {@code onStart()}, this goes through
+     * {@code Loader.dispatchCallbacks()}.
+     */
+    @Benchmark
+    public void synchronousSuccess() {
+        for (BenchmarkLoader loader : syncLoaders) {
+            loader.restart();
+        }
+    }
+
+    /**
+     * {@code Loader.setCallbacks()} on a loader with a cached result, this re-delivers the result
+     * through {@code Loader.dispatchCallbacks()}.
+     */
+    @Benchmark
+    public void setCallbacks() {
+        for (BenchmarkLoader loader : loaders) {
+            loader.setCallbacks(null);
+            loader.setCallbacks(callbacks);
+        }
+    }
+}
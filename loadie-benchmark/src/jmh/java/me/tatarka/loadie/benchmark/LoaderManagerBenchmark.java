@@ -0,0 +1,81 @@
+package me.tatarka.loadie.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import me.tatarka.loadie.Loader;
+import me.tatarka.loadie.LoaderManager;
+
+/**
+ * Benchmarks for the {@link LoaderManager} lifecycle methods. Every loader has a cached result so
+ * attaching callbacks re-delivers it.
+ */
+@State(Scope.Thread)
+public class LoaderManagerBenchmark {
+
+    @Param({"1", "100", "10000"})
+    int loaderCount;
+
+    LoaderManager loaderManager;
+    Loader.Create<BenchmarkLoader> create;
+    BlackholeCallbacks callbacks;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        callbacks = new BlackholeCallbacks(blackhole);
+        create = BenchmarkLoader.create(false);
+        loaderManager = new LoaderManager();
+        for (int i = 0; i < loaderCount; i++) {
+            BenchmarkLoader loader = loaderManager.init(i, create, callbacks);
+            loader.start();
+            loader.receiver().result(BenchmarkLoader.RESULT);
+        }
+        loaderManager.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        loaderManager.destroy();
+    }
+
+    /**
+     * Creating a new {@code LoaderManager}, initializing and starting all loaders, and then
+     * destroying them.
+     */
+    @Benchmark
+    public void initStartDestroy() {
+        LoaderManager loaderManager = new LoaderManager();
+        for (int i = 0; i < loaderCount; i++) {
+            loaderManager.init(i, create, callbacks).start();
+        }
+        loaderManager.start();
+        loaderManager.destroy();
+    }
+
+    /**
+     * {@code stop()} and {@code start()}, like a fragment's view being destroyed and recreated.
+     */
+    @Benchmark
+    public void stopStart() {
+        loaderManager.stop();
+        loaderManager.start();
+    }
+
+    /**
+     * {@code detach()}, re-{@code init()} of every loader and {@code start()}, like a
+     * configuration change.
+     */
+    @Benchmark
+    public void detachInitStart() {
+        loaderManager.detach();
+        for (int i = 0; i < loaderCount; i++) {
+            loaderManager.init(i, create, callbacks);
+        }
+        loaderManager.start();
+    }
+}
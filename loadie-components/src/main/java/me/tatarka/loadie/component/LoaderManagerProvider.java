@@ -12,6 +12,7 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import me.tatarka.loadie.LoaderManager;
+import me.tatarka.loadie.TrimMemoryCallbacks;
 
 public class LoaderManagerProvider {
 
@@ -97,13 +98,16 @@ public class LoaderManagerProvider {
 
     static class LoaderLoader extends android.support.v4.content.Loader {
         final LoaderManager loaderManager = new LoaderManager();
+        final TrimMemoryCallbacks trimMemoryCallbacks = new TrimMemoryCallbacks(loaderManager);
 
         LoaderLoader(Context context) {
             super(context);
+            getContext().registerComponentCallbacks(trimMemoryCallbacks);
         }
 
         @Override
         protected void onReset() {
+            getContext().unregisterComponentCallbacks(trimMemoryCallbacks);
             loaderManager.destroy();
         }
     }
@@ -11,6 +11,8 @@ import android.support.test.runner.lifecycle.Stage;
 
 import com.bluelinelabs.conductor.RouterTransaction;
 
+import me.tatarka.loadie.controller.LoaderManagerProvider;
+
 import org.junit.Before;
 import org.junit.FixMethodOrder;
 import org.junit.Rule;
@@ -39,6 +41,8 @@ public class LoaderManagerProviderControllerTest {
     @Test
     public void loader_manager_is_retained_across_config_changes() {
         final LoaderManager firstLoaderManager = activityRule.getActivity().controller.loaderManager;
+        final TestLoader testLoader = firstLoaderManager.init(0, TestLoader.CREATE, new Loader.CallbacksAdapter() {
+        });
         final Activity firstActivity = activityRule.getActivity();
         i.runOnMainSync(new Runnable() {
             @Override
@@ -51,10 +55,53 @@ public class LoaderManagerProviderControllerTest {
             @Override
             public void run() {
                 TestActivity secondActivity = (TestActivity) ActivityLifecycleMonitorRegistry.getInstance().getActivitiesInStage(Stage.RESUMED).iterator().next();
-                LoaderManager secondLoaderManager = secondActivity.controller.loaderManager;
+                LoaderManager secondLoaderManager = LoaderManagerProvider.forController(secondActivity.controller);
 
                 assertNotSame(firstActivity, secondActivity);
                 assertSame(firstLoaderManager, secondLoaderManager);
+                assertFalse(testLoader.isDestroyed());
+            }
+        });
+    }
+
+    @Test
+    public void loader_manager_is_retained_for_controller_on_backstack_across_config_changes() {
+        final LoaderManager firstLoaderManager = activityRule.getActivity().controller.loaderManager;
+        final TestLoader testLoader = firstLoaderManager.init(0, TestLoader.CREATE, new Loader.CallbacksAdapter() {
+        });
+        final Activity firstActivity = activityRule.getActivity();
+        i.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                activityRule.getActivity().router.pushController(RouterTransaction.with(new TestController()));
+            }
+        });
+        i.waitForIdleSync();
+        i.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                firstActivity.recreate();
+            }
+        });
+        i.waitForIdleSync();
+        final TestActivity[] secondActivity = new TestActivity[1];
+        i.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                secondActivity[0] = (TestActivity) ActivityLifecycleMonitorRegistry.getInstance().getActivitiesInStage(Stage.RESUMED).iterator().next();
+                secondActivity[0].router.popCurrentController();
+            }
+        });
+        i.waitForIdleSync();
+        i.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                LoaderManager secondLoaderManager = LoaderManagerProvider.forController(secondActivity[0].controller);
+
+                assertNotSame(firstActivity, secondActivity[0]);
+                assertSame(firstLoaderManager, secondLoaderManager);
+                assertTrue(testLoader.isAttached());
+                assertFalse(testLoader.isDestroyed());
             }
         });
     }
@@ -97,6 +144,25 @@ public class LoaderManagerProviderControllerTest {
     @Test
     public void z_loader_manager_destroys_on_finish() {
         // We need a separate activity because the test framework will complain if we finish the original one.
+        final TestActivity activity = (TestActivity) i.startActivitySync(new Intent(i.getContext(), TestActivity.class));
+        LoaderManager loaderManager = activity.controller.loaderManager;
+        final TestLoader testLoader = loaderManager.init(0, TestLoader.CREATE, new Loader.CallbacksAdapter() {
+        });
+        i.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                activity.finish();
+                i.callActivityOnDestroy(activity);
+            }
+        });
+        i.waitForIdleSync();
+
+        assertFalse(testLoader.isAttached());
+        assertTrue(testLoader.isDestroyed());
+    }
+
+    @Test
+    public void z_loader_manager_destroys_when_activity_is_destroyed_without_finishing() {
         final TestActivity activity = (TestActivity) i.startActivitySync(new Intent(i.getContext(), TestActivity.class));
         LoaderManager loaderManager = activity.controller.loaderManager;
         final TestLoader testLoader = loaderManager.init(0, TestLoader.CREATE, new Loader.CallbacksAdapter() {
@@ -109,7 +175,15 @@ public class LoaderManagerProviderControllerTest {
         });
         i.waitForIdleSync();
 
+        // It's not a configuration change so conductor destroys the controller.
         assertFalse(testLoader.isAttached());
         assertTrue(testLoader.isDestroyed());
     }
+
+    @Test
+    public void loader_manager_is_the_same_for_every_call() {
+        final TestController controller = activityRule.getActivity().controller;
+
+        assertSame(controller.loaderManager, LoaderManagerProvider.forController(controller));
+    }
 }
@@ -1,23 +1,66 @@
 package me.tatarka.loadie.controller;
 
+import android.content.Context;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.view.View;
 
 import com.bluelinelabs.conductor.Controller;
 
+import java.util.HashMap;
+
 import me.tatarka.loadie.LoaderManager;
+import me.tatarka.loadie.TrimMemoryCallbacks;
 
 public class LoaderManagerProvider {
 
     /**
-     * Obtains a {@link LoaderManager} for the given {@link Controller}.
+     * Loader managers by {@link Controller#getInstanceId()}, removed when the controller is
+     * destroyed.
+     */
+    private static final HashMap<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Obtains the {@link LoaderManager} for the given {@link Controller}. Every call for the same
+     * controller returns the same loader manager, so it's loaders are kept while the controller's
+     * view is destroyed on the back stack and across configuration changes, which conductor keeps
+     * the controller through. The loader manager is destroyed when the controller is, because it
+     * was popped or it's activity is destroyed for good.
+     * <p>
+     * A controller restored after process death only gets it's instance id after it's constructor
+     * has run, so call this from the same place every time, either the constructor or {@link
+     * Controller#onCreateView} and later. This must be called on the main thread.
      */
+    @MainThread
     public static LoaderManager forController(Controller controller) {
+        String instanceId = controller.getInstanceId();
+        Entry entry = entries.get(instanceId);
+        if (entry == null) {
+            entry = new Entry(instanceId);
+            entries.put(instanceId, entry);
+            controller.addLifecycleListener(entry.new Listener());
+        }
+        return entry.loaderManager;
+    }
+
+    private static final class Entry {
         final LoaderManager loaderManager = new LoaderManager();
-        controller.addLifecycleListener(new Controller.LifecycleListener() {
+        final TrimMemoryCallbacks trimMemoryCallbacks = new TrimMemoryCallbacks(loaderManager);
+        final String instanceId;
+        Context context;
+
+        Entry(String instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        final class Listener extends Controller.LifecycleListener {
 
             @Override
             public void preAttach(@NonNull Controller controller, @NonNull View view) {
+                if (context == null) {
+                    context = controller.getApplicationContext();
+                    context.registerComponentCallbacks(trimMemoryCallbacks);
+                }
                 loaderManager.start();
             }
 
@@ -28,9 +71,13 @@ public class LoaderManagerProvider {
 
             @Override
             public void postDestroy(@NonNull Controller controller) {
+                entries.remove(instanceId);
+                if (context != null) {
+                    context.unregisterComponentCallbacks(trimMemoryCallbacks);
+                    context = null;
+                }
                 loaderManager.destroy();
             }
-        });
-        return loaderManager;
+        }
     }
 }
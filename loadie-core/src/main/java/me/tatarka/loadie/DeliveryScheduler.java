@@ -0,0 +1,35 @@
+package me.tatarka.loadie;
+
+/**
+ * Schedules loader callbacks that can't be delivered right away, like results delivered from
+ * inside {@link Loader#onStart(Loader.Receiver)} or results that are conflated to one per frame.
+ * A loader and it's deliveries are confined to a single thread, so a scheduler must run
+ * deliveries on the thread the loader is used on. The default is {@link
+ * DeliverySchedulers#mainThread()}.
+ *
+ * @see DeliverySchedulers
+ * @see Loader#setDeliveryScheduler(DeliveryScheduler)
+ * @see LoaderManager#LoaderManager(DeliveryScheduler)
+ */
+public interface DeliveryScheduler {
+    /**
+     * Runs the delivery with the given token as soon as possible. Loaders that finish work on
+     * another thread, like {@code AsyncTaskLoader}, call this from that thread.
+     */
+    void schedule(Delivery delivery, int token);
+
+    /**
+     * Runs the delivery with the given token on the next frame, or as soon as possible if there
+     * are no frames.
+     */
+    void scheduleOnFrame(Delivery delivery, int token);
+
+    /**
+     * Delivers a loader's pending callbacks. The token identifies what was pending when it was
+     * scheduled, the delivery ignores it if it's out of date so that schedulers never need to
+     * remove anything they have scheduled.
+     */
+    interface Delivery {
+        void deliver(int token);
+    }
+}
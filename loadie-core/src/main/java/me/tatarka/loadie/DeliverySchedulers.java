@@ -0,0 +1,102 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+
+/**
+ * Common {@link DeliveryScheduler}s.
+ */
+public final class DeliverySchedulers {
+
+    private static final DeliveryScheduler IMMEDIATE = new DeliveryScheduler() {
+        @Override
+        public void schedule(Delivery delivery, int token) {
+            delivery.deliver(token);
+        }
+
+        @Override
+        public void scheduleOnFrame(Delivery delivery, int token) {
+            delivery.deliver(token);
+        }
+    };
+
+    /**
+     * Provides the platform's default scheduler when the android binding is present.
+     */
+    private static final String ANDROID_SCHEDULERS = "me.tatarka.loadie.AndroidDeliverySchedulers";
+
+    @Nullable
+    private static DeliveryScheduler defaultScheduler;
+    @Nullable
+    private static DeliveryScheduler platformScheduler;
+
+    private DeliverySchedulers() {
+    }
+
+    /**
+     * Delivers immediately on the calling thread. This is the default without the android binding
+     * and is useful for tests and for using loaders on a single thread without an event loop.
+     */
+    public static DeliveryScheduler immediate() {
+        return IMMEDIATE;
+    }
+
+    /**
+     * Delivers on the given executor, there are no frames so conflated results are delivered as
+     * soon as possible. The executor must run on the thread the loaders are used on, for example
+     * a single thread executor that all loader work is confined to.
+     */
+    public static DeliveryScheduler from(final Executor executor) {
+        return new DeliveryScheduler() {
+            @Override
+            public void schedule(final Delivery delivery, final int token) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        delivery.deliver(token);
+                    }
+                });
+            }
+
+            @Override
+            public void scheduleOnFrame(Delivery delivery, int token) {
+                schedule(delivery, token);
+            }
+        };
+    }
+
+    /**
+     * Returns the scheduler used by loaders that haven't been given one. This is the main thread
+     * scheduler from {@code AndroidDeliverySchedulers} when the android binding is present,
+     * otherwise {@link #immediate()}.
+     */
+    @NonNull
+    public static DeliveryScheduler getDefault() {
+        DeliveryScheduler scheduler = defaultScheduler;
+        return scheduler != null ? scheduler : getPlatformScheduler();
+    }
+
+    private static DeliveryScheduler getPlatformScheduler() {
+        DeliveryScheduler scheduler = platformScheduler;
+        if (scheduler == null) {
+            try {
+                scheduler = (DeliveryScheduler) Class.forName(ANDROID_SCHEDULERS).getMethod("mainThread").invoke(null);
+            } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+                scheduler = IMMEDIATE;
+            }
+            platformScheduler = scheduler;
+        }
+        return scheduler;
+    }
+
+    /**
+     * Sets the scheduler used by loaders that haven't been given one, or null to use the platform
+     * default. This is mostly useful to deliver immediately in tests.
+     */
+    public static void setDefault(@Nullable DeliveryScheduler scheduler) {
+        defaultScheduler = scheduler;
+    }
+}
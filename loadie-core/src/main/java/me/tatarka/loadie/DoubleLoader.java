@@ -0,0 +1,122 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+
+/**
+ * A {@link Loader} that delivers {@code double} results without boxing them. Implement {@link
+ * #onStart(DoubleReceiver)} instead of {@link #onStart(Loader.Receiver)} and deliver results with
+ * {@link DoubleReceiver#result(double)}. Results are delivered to {@link
+ * DoubleCallbacks#onLoaderResult(double)} if the callbacks implement {@link DoubleCallbacks},
+ * otherwise they are boxed and delivered to {@link Loader.Callbacks#onLoaderResult(Object)}. The
+ * lifecycle is otherwise the same as {@link Loader}.
+ */
+public abstract class DoubleLoader extends Loader<Double> {
+
+    double cachedDoubleResult;
+
+    @Override
+    protected final void onStart(Receiver receiver) {
+        onStart(new DoubleReceiver(receiver));
+    }
+
+    /**
+     * Do your loader work, see {@link Loader#onStart(Loader.Receiver)}.
+     */
+    protected abstract void onStart(DoubleReceiver receiver);
+
+    @Override
+    void dispatchResult(Loader.Callbacks<Double> callbacks) {
+        if (callbacks instanceof DoubleCallbacks) {
+            ((DoubleCallbacks) callbacks).onLoaderResult(cachedDoubleResult);
+        } else {
+            callbacks.onLoaderResult(cachedDoubleResult);
+        }
+    }
+
+    @Override
+    Double getCachedResult() {
+        return cachedDoubleResult;
+    }
+
+    @Override
+    void setCachedResult(Double result) {
+        cachedDoubleResult = result;
+    }
+
+    /**
+     * Receives {@code double} results from the loader and notifies the loader's callbacks.
+     *
+     * @see Loader.Receiver
+     */
+    public final class DoubleReceiver {
+        private final Receiver receiver;
+
+        DoubleReceiver(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        /**
+         * Deliver a result to {@link DoubleCallbacks#onLoaderResult(double)}, see {@link
+         * Loader.Receiver#result(Object)}. This must be run on the main thread.
+         */
+        @MainThread
+        public void result(double result) {
+            if (!receiver.beginResult()) {
+                return;
+            }
+            cachedDoubleResult = result;
+            receiver.deliverResult();
+        }
+
+        /**
+         * Deliver an error, see {@link Loader.Receiver#error(Throwable)}. This must be run on the
+         * main thread.
+         */
+        @MainThread
+        public void error(Throwable error) {
+            receiver.error(error);
+        }
+
+        /**
+         * Marks the loader as success, see {@link Loader.Receiver#success()}. This must be run on
+         * the main thread.
+         */
+        @MainThread
+        public void success() {
+            receiver.success();
+        }
+
+        /**
+         * Delivers a result and completes the loader. This is a convenience for calling {@link
+         * #result(double)} followed by {@link #success()}. This must be called on the main thread.
+         */
+        @MainThread
+        public void success(double result) {
+            result(result);
+            success();
+        }
+    }
+
+    /**
+     * Implement this callback to listen to {@code double} results from the loader without boxing.
+     */
+    public interface DoubleCallbacks extends Loader.Callbacks<Double> {
+        /**
+         * Called when the loader delivers a result and with the last result when the callback is
+         * attached if it exists.
+         */
+        void onLoaderResult(double result);
+    }
+
+    public static abstract class DoubleCallbacksAdapter extends Loader.CallbacksAdapter<Double> implements DoubleCallbacks {
+        @Override
+        public final void onLoaderResult(Double result) {
+            onLoaderResult(result.doubleValue());
+        }
+
+        @Override
+        public void onLoaderResult(double result) {
+
+        }
+    }
+}
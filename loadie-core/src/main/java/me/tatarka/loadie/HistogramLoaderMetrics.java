@@ -0,0 +1,171 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * {@link LoaderMetrics} that keeps {@link LatencyHistogram}s and counts for each loader class and
+ * id. Recording doesn't allocate once a loader has been seen. This isn't thread-safe, read the
+ * stats on the thread the loaders are used on.
+ */
+public class HistogramLoaderMetrics implements LoaderMetrics {
+
+    private final HashMap<Class<?>, IntMap<Stats>> stats = new HashMap<>();
+
+    /**
+     * Returns the stats for the loader class and id, or null if no loader has been recorded for
+     * them.
+     */
+    @Nullable
+    public Stats getStats(Class<?> loaderClass, int id) {
+        IntMap<Stats> statsById = stats.get(loaderClass);
+        return statsById != null ? statsById.get(id) : null;
+    }
+
+    /**
+     * Returns the stats for all loaders that have been recorded.
+     */
+    public List<Stats> getAllStats() {
+        List<Stats> result = new ArrayList<>();
+        for (IntMap<Stats> statsById : stats.values()) {
+            for (int i = 0, size = statsById.size(); i < size; i++) {
+                result.add(statsById.valueAt(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears all recorded stats.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    private Stats stats(int id, Loader<?> loader) {
+        Class<?> loaderClass = loader.getClass();
+        IntMap<Stats> statsById = stats.get(loaderClass);
+        if (statsById == null) {
+            statsById = new IntMap<>(1);
+            stats.put(loaderClass, statsById);
+        }
+        Stats result = statsById.get(id);
+        if (result == null) {
+            result = new Stats(loaderClass, id);
+            statsById.put(id, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void onLoaderStart(int id, Loader<?> loader, boolean restart) {
+        Stats stats = stats(id, loader);
+        stats.startCount++;
+        if (restart) {
+            stats.restartCount++;
+        }
+    }
+
+    @Override
+    public void onLoaderFirstResult(int id, Loader<?> loader, long elapsedNanos) {
+        stats(id, loader).timeToFirstResult.record(elapsedNanos);
+    }
+
+    @Override
+    public void onLoaderComplete(int id, Loader<?> loader, long elapsedNanos, @Nullable Throwable error) {
+        Stats stats = stats(id, loader);
+        stats.timeToComplete.record(elapsedNanos);
+        if (error != null) {
+            stats.errorCount++;
+        }
+    }
+
+    @Override
+    public void onLoaderCancel(int id, Loader<?> loader) {
+        stats(id, loader).cancelCount++;
+    }
+
+    @Override
+    public void onCallbacksDelivered(int id, Loader<?> loader, long latencyNanos) {
+        stats(id, loader).deliveryLatency.record(latencyNanos);
+    }
+
+    /**
+     * Recorded stats for a loader class and id.
+     */
+    public static final class Stats {
+        private final Class<?> loaderClass;
+        private final int id;
+        final LatencyHistogram timeToFirstResult = new LatencyHistogram();
+        final LatencyHistogram timeToComplete = new LatencyHistogram();
+        final LatencyHistogram deliveryLatency = new LatencyHistogram();
+        long startCount;
+        long restartCount;
+        long cancelCount;
+        long errorCount;
+
+        Stats(Class<?> loaderClass, int id) {
+            this.loaderClass = loaderClass;
+            this.id = id;
+        }
+
+        public Class<?> getLoaderClass() {
+            return loaderClass;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Time from the loader starting to it's first result.
+         */
+        public LatencyHistogram getTimeToFirstResult() {
+            return timeToFirstResult;
+        }
+
+        /**
+         * Time from the loader starting to it completing with success or an error.
+         */
+        public LatencyHistogram getTimeToComplete() {
+            return timeToComplete;
+        }
+
+        /**
+         * Time posted callbacks waited before being delivered.
+         */
+        public LatencyHistogram getDeliveryLatency() {
+            return deliveryLatency;
+        }
+
+        public long getStartCount() {
+            return startCount;
+        }
+
+        public long getRestartCount() {
+            return restartCount;
+        }
+
+        public long getCancelCount() {
+            return cancelCount;
+        }
+
+        public long getErrorCount() {
+            return errorCount;
+        }
+
+        @Override
+        public String toString() {
+            return loaderClass.getName() + "#" + id + "{starts=" + startCount
+                    + ", restarts=" + restartCount
+                    + ", cancels=" + cancelCount
+                    + ", errors=" + errorCount
+                    + ", timeToFirstResult=" + timeToFirstResult
+                    + ", timeToComplete=" + timeToComplete
+                    + ", deliveryLatency=" + deliveryLatency + "}";
+        }
+    }
+}
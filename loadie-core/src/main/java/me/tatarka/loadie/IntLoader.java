@@ -0,0 +1,122 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+
+/**
+ * A {@link Loader} that delivers {@code int} results without boxing them. Implement {@link
+ * #onStart(IntReceiver)} instead of {@link #onStart(Loader.Receiver)} and deliver results with
+ * {@link IntReceiver#result(int)}. Results are delivered to {@link
+ * IntCallbacks#onLoaderResult(int)} if the callbacks implement {@link IntCallbacks}, otherwise
+ * they are boxed and delivered to {@link Loader.Callbacks#onLoaderResult(Object)}. The lifecycle
+ * is otherwise the same as {@link Loader}.
+ */
+public abstract class IntLoader extends Loader<Integer> {
+
+    int cachedIntResult;
+
+    @Override
+    protected final void onStart(Receiver receiver) {
+        onStart(new IntReceiver(receiver));
+    }
+
+    /**
+     * Do your loader work, see {@link Loader#onStart(Loader.Receiver)}.
+     */
+    protected abstract void onStart(IntReceiver receiver);
+
+    @Override
+    void dispatchResult(Loader.Callbacks<Integer> callbacks) {
+        if (callbacks instanceof IntCallbacks) {
+            ((IntCallbacks) callbacks).onLoaderResult(cachedIntResult);
+        } else {
+            callbacks.onLoaderResult(cachedIntResult);
+        }
+    }
+
+    @Override
+    Integer getCachedResult() {
+        return cachedIntResult;
+    }
+
+    @Override
+    void setCachedResult(Integer result) {
+        cachedIntResult = result;
+    }
+
+    /**
+     * Receives {@code int} results from the loader and notifies the loader's callbacks.
+     *
+     * @see Loader.Receiver
+     */
+    public final class IntReceiver {
+        private final Receiver receiver;
+
+        IntReceiver(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        /**
+         * Deliver a result to {@link IntCallbacks#onLoaderResult(int)}, see {@link
+         * Loader.Receiver#result(Object)}. This must be run on the main thread.
+         */
+        @MainThread
+        public void result(int result) {
+            if (!receiver.beginResult()) {
+                return;
+            }
+            cachedIntResult = result;
+            receiver.deliverResult();
+        }
+
+        /**
+         * Deliver an error, see {@link Loader.Receiver#error(Throwable)}. This must be run on the
+         * main thread.
+         */
+        @MainThread
+        public void error(Throwable error) {
+            receiver.error(error);
+        }
+
+        /**
+         * Marks the loader as success, see {@link Loader.Receiver#success()}. This must be run on
+         * the main thread.
+         */
+        @MainThread
+        public void success() {
+            receiver.success();
+        }
+
+        /**
+         * Delivers a result and completes the loader. This is a convenience for calling {@link
+         * #result(int)} followed by {@link #success()}. This must be called on the main thread.
+         */
+        @MainThread
+        public void success(int result) {
+            result(result);
+            success();
+        }
+    }
+
+    /**
+     * Implement this callback to listen to {@code int} results from the loader without boxing.
+     */
+    public interface IntCallbacks extends Loader.Callbacks<Integer> {
+        /**
+         * Called when the loader delivers a result and with the last result when the callback is
+         * attached if it exists.
+         */
+        void onLoaderResult(int result);
+    }
+
+    public static abstract class IntCallbacksAdapter extends Loader.CallbacksAdapter<Integer> implements IntCallbacks {
+        @Override
+        public final void onLoaderResult(Integer result) {
+            onLoaderResult(result.intValue());
+        }
+
+        @Override
+        public void onLoaderResult(int result) {
+
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.tatarka.loadie;
+
+import java.util.Arrays;
+
+/**
+ * Maps int keys to values without boxing, like android's {@code SparseArray}. Keys are kept sorted
+ * and looked up with a binary search, so iterating with {@link #keyAt(int)} and {@link
+ * #valueAt(int)} is cheap and doesn't allocate.
+ */
+final class IntMap<E> {
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    IntMap(int initialCapacity) {
+        keys = new int[initialCapacity];
+        values = new Object[initialCapacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int key) {
+        int i = binarySearch(keys, size, key);
+        return i >= 0 ? (E) values[i] : null;
+    }
+
+    void put(int key, E value) {
+        int i = binarySearch(keys, size, key);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        i = ~i;
+        if (size == keys.length) {
+            int newCapacity = size <= 4 ? 8 : size * 2;
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(values, i, values, i + 1, size - i);
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    void remove(int key) {
+        int i = binarySearch(keys, size, key);
+        if (i >= 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            values[size] = null;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    E valueAt(int index) {
+        return (E) values[index];
+    }
+
+    void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    private static int binarySearch(int[] array, int size, int value) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midVal = array[mid];
+            if (midVal < value) {
+                lo = mid + 1;
+            } else if (midVal > value) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return ~lo;
+    }
+}
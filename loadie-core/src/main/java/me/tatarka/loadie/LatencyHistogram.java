@@ -0,0 +1,105 @@
+package me.tatarka.loadie;
+
+/**
+ * A histogram of durations in nanoseconds using power of two buckets. Recording is a couple of
+ * array writes and never allocates, at the cost of percentiles only being accurate to within a
+ * factor of two.
+ */
+public final class LatencyHistogram {
+
+    private final long[] buckets = new long[64];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records the given duration, negative durations are recorded as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[bucket(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the longest recorded duration, or 0 if none have been recorded.
+     */
+    public long getMaxNanos() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded durations, or 0 if none have been recorded.
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Returns an upper bound for the given percentile of recorded durations, ex: {@code 0.9} for
+     * the 90th percentile. Returns 0 if none have been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1, got: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Bucket 0 holds 0, bucket n holds [2^(n-1), 2^n).
+     */
+    private static int bucket(long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(nanos), 63);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + count
+                + ", mean=" + getMeanNanos()
+                + ", p50=" + getPercentileNanos(0.5)
+                + ", p90=" + getPercentileNanos(0.9)
+                + ", p99=" + getPercentileNanos(0.99)
+                + ", max=" + max + "}";
+    }
+}
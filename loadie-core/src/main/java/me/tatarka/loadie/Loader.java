@@ -0,0 +1,866 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A loader helps connect async operations to your views. It is retained across configuration
+ * changes with {@link LoaderManager}. You run your operation in {@link #onStart(Receiver)}} and
+ * deliver the result with {@link Receiver#result(Object)}. Note that {@link #onStart(Receiver)}}
+ * is <em>not</em> run in a background thread. You should handle threading yourself with an {@code
+ * AsyncTask} or other mechanism. The result will be cached and re-delivered after a
+ * configuration change. You may also optionally implement {@link #onCancel()} if you can cancel
+ * your work when it is no longer needed.
+ *
+ * @param <T> The type of result that the loader will deliver
+ */
+public abstract class Loader<T> {
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_HAS_RESULT = 1 << 1;
+    private static final int STATE_SUCCESS = 1 << 2;
+    private static final int STATE_ERROR = 1 << 3;
+    private static final int STATE_DESTROYED = 1 << 4;
+
+    private static final int CALLBACKS_START = 1;
+    private static final int CALLBACKS_RESULT = 2;
+    private static final int CALLBACKS_SUCCESS = 4;
+    private static final int CALLBACKS_ERROR = 8;
+
+    private static boolean isRunning(int state) {
+        return (state & STATE_RUNNING) == STATE_RUNNING;
+    }
+
+    private static boolean isSuccess(int state) {
+        return (state & STATE_SUCCESS) == STATE_SUCCESS;
+    }
+
+    private static boolean isError(int state) {
+        return (state & STATE_ERROR) == STATE_ERROR;
+    }
+
+    private static boolean isDestroyed(int state) {
+        return (state & STATE_DESTROYED) == STATE_DESTROYED;
+    }
+
+    /**
+     * Throws an {@link IllegalStateException} if loader is destroyed.
+     */
+    private static void checkDestroyed(String method, int state) {
+        if (isDestroyed(state)) {
+            throw new IllegalStateException("cannot call " + method + "() after destroy()");
+        }
+    }
+
+    @Nullable
+    Callbacks<T> callbacks;
+    @Nullable
+    Receiver receiver;
+    T cachedResult;
+    Throwable cachedError;
+    AtomicInteger state = new AtomicInteger();
+    @Nullable
+    DeliveryScheduler deliveryScheduler;
+    private final DeliveryScheduler.Delivery delivery = new DeliveryScheduler.Delivery() {
+        @Override
+        public void deliver(int token) {
+            deliverPendingCallbacks(token);
+        }
+    };
+    /**
+     * Identifies callbacks posted to the {@link DeliveryScheduler}, bumping it drops any that are
+     * still pending.
+     */
+    int dispatchToken;
+    /**
+     * Callback methods waiting on a posted delivery.
+     */
+    int pendingMethods;
+    boolean conflateResults;
+    /**
+     * Set by {@link LoaderManager} when it dropped the loader's result to free memory, so that it
+     * is restarted the next time the loader manager is started.
+     */
+    boolean trimmed;
+    @Nullable
+    SnapshotAdapter<T> snapshotAdapter;
+    /**
+     * Set when a result is delivered, cleared once {@link LoaderManager} writes it to it's {@link
+     * SnapshotStore}.
+     */
+    boolean snapshotStale;
+    /**
+     * The id the loader was created with in {@link LoaderManager}, or -1 if it isn't managed.
+     */
+    int id = -1;
+    /**
+     * Set by {@link LoaderManager#setMetrics(LoaderMetrics)}.
+     */
+    @Nullable
+    LoaderMetrics metrics;
+    @Nullable
+    private String traceName;
+    private int traceCookie;
+    private boolean hasStarted;
+    private boolean awaitingFirstResult;
+    private long startNanos;
+    private long postNanos;
+
+    /**
+     * Starts the loader if it has not already been started, calling {@link #onStart(Receiver)}}
+     * and triggering {@link Callbacks#onLoaderStart()}. This must be called on the main thread.
+     */
+    @MainThread
+    public final void start() {
+        int s = state.get();
+        checkDestroyed("start", s);
+        if (!isRunning(s) && !isSuccess(s) && !isError(s)) {
+            // Keep a result restored from a snapshot around until the real one arrives.
+            state.set(STATE_RUNNING | (s & STATE_HAS_RESULT));
+            trimmed = false;
+            LoaderMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.onLoaderStart(id, this, hasStarted);
+                startNanos = System.nanoTime();
+                awaitingFirstResult = true;
+            }
+            hasStarted = true;
+            if (callbacks != null) {
+                callbacks.onLoaderStart();
+            }
+            Receiver receiver = new Receiver();
+            this.receiver = receiver;
+            receiver.myState |= Receiver.SYNCHRONOUS;
+            LoaderTracer tracer = LoaderTracing.getTracer();
+            if (tracer != null) {
+                traceCookie = LoaderTracing.nextCookie();
+                tracer.beginAsyncSection(getTraceName(), traceCookie);
+                tracer.beginSection(getTraceName() + " onStart");
+                try {
+                    onStart(receiver);
+                } finally {
+                    tracer.endSection();
+                }
+            } else {
+                onStart(receiver);
+            }
+            receiver.myState &= ~Receiver.SYNCHRONOUS;
+        }
+    }
+
+    /**
+     * Cancels the loader if it's running, calling {@link #onCancel()} and removing any cached
+     * data. This must be called on the main thread.
+     */
+    @MainThread
+    public final void cancel() {
+        int s = state.get();
+        checkDestroyed("cancel", s);
+        cachedResult = null;
+        if (receiver != null) {
+            receiver.myState = Receiver.CANCELED;
+            receiver = null;
+        }
+        clearPendingCallbacks();
+        if (isRunning(s)) {
+            if (metrics != null) {
+                metrics.onLoaderCancel(id, this);
+            }
+            endTrace();
+            onCancel();
+        }
+        state.set(0);
+    }
+
+    /**
+     * Forces the loader to restart. This is a convenience method for calling {@link #cancel()}
+     * followed by {@link #start()}. This must be called on the main thread.
+     */
+    @MainThread
+    public final void restart() {
+        cancel();
+        start();
+    }
+
+    /**
+     * Destroys the loader, canceling it if necessary. This is normally called for you by {@link
+     * LoaderManager}. This will trigger {@link #onDestroy()} allowing you to clean up any
+     * resources if necessary. You should not call any other methods on the loader after this.
+     */
+    @MainThread
+    public final void destroy() {
+        int s = state.get();
+        checkDestroyed("destroy", s);
+        cancel();
+        state.set(STATE_DESTROYED);
+        callbacks = null;
+        onDestroy();
+    }
+
+    /**
+     * Returns true if the loader is running. That is, if it has been started and not stopped and
+     * {@link Receiver#success()} has not been called. If this is true than you may expect one or
+     * more results to be delivered.
+     */
+    public final boolean isRunning() {
+        return isRunning(state.get());
+    }
+
+    /**
+     * Returns true if the loader has a result. If it does, the result will be delivered
+     * immediately after the loader has been re-attached.
+     */
+    public final boolean hasResult() {
+        return (state.get() & STATE_HAS_RESULT) == STATE_HAS_RESULT;
+    }
+
+    /**
+     * Returns true if the loader has been completed successfully. If it has, then it has been
+     * started but no more results may be delivered and it's no longer running.
+     */
+    public final boolean isSuccess() {
+        return isSuccess(state.get());
+    }
+
+    /**
+     * Returns true if the loader has completed with an error. If it has, then no more results may
+     * be delivered and it is no longer running.
+     */
+    public final boolean isError() {
+        return isError(state.get());
+    }
+
+    /**
+     * Returns true if the loader has been destroyed.
+     */
+    public final boolean isDestroyed() {
+        return isDestroyed(state.get());
+    }
+
+    /**
+     * Returns true if the loader has non-null callbacks attached with {@link
+     * #setCallbacks(Callbacks)}.
+     */
+    public final boolean isAttached() {
+        return callbacks != null;
+    }
+
+    /**
+     * Do your loader work. This is run on the main thread so you are expected to handle threading
+     * yourself either by using an {@code AsyncTask} or other mechanism. When you have
+     * one or more results you should call {@link Receiver#result(Object)} and then call {@link
+     * Receiver#success()} when you are done.
+     */
+    protected abstract void onStart(final Receiver receiver);
+
+    /**
+     * Optionally cancel doing work because the result is no longer needed. This will only be
+     * called if the loader has been started and is running. This is run on the main thread.
+     */
+    protected void onCancel() {
+    }
+
+    /**
+     * Optionally clean up any resources the loader is using when it is destroyed. No methods will
+     * be called on the loader after this.
+     */
+    protected void onDestroy() {
+    }
+
+    /**
+     * Optionally react to callbacks being attached, which happens when the owning {@link
+     * LoaderManager} is started. This is a good time to give any pending work a higher priority
+     * since it's result is about to be displayed. This is run on the main thread.
+     */
+    protected void onAttach() {
+    }
+
+    /**
+     * Optionally react to callbacks being detached, which happens when the owning {@link
+     * LoaderManager} is stopped or detached. This is run on the main thread.
+     */
+    protected void onDetach() {
+    }
+
+    /**
+     * Sets whether results should be conflated. When enabled, results are not delivered to {@link
+     * Callbacks#onLoaderResult(Object)} immediately, instead only the latest result is delivered on
+     * the next frame. This is useful for loaders that may deliver results faster than they can be
+     * displayed. A pending result is always delivered before {@link Callbacks#onLoaderSuccess()}
+     * or {@link Callbacks#onLoaderError(Throwable)}. This must be called on the main thread.
+     *
+     * @throws UnsupportedOperationException if the loader releases it's previous result as soon as
+     *                                       it delivers a new one, like a cursor loader.
+     */
+    @MainThread
+    public final void setConflateResults(boolean conflateResults) {
+        if (conflateResults && !canConflateResults()) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " can't conflate results, it releases the previous result as soon as it delivers a new one");
+        }
+        this.conflateResults = conflateResults;
+        if (!conflateResults) {
+            flushPendingCallbacks();
+        }
+    }
+
+    /**
+     * Returns false if the loader releases it's previous result right after delivering a new one,
+     * which would leave the callbacks holding a released result until a conflated one arrives.
+     */
+    boolean canConflateResults() {
+        return true;
+    }
+
+    /**
+     * Returns true if results are conflated to at most one per frame.
+     *
+     * @see #setConflateResults(boolean)
+     */
+    public final boolean isConflatingResults() {
+        return conflateResults;
+    }
+
+    /**
+     * Sets the adapter used to persist the loader's result. If set, and the {@link LoaderManager}
+     * has a {@link SnapshotStore}, the last result is written to disk when the loader manager is
+     * stopped and restored when the loader is next created with {@link LoaderManager#init(int,
+     * Create, Callbacks)}, even after process death. The restored result is delivered as normal
+     * while the loader runs again to replace it. This must be called on the main thread, before
+     * the loader is returned from {@link Create#create()} for it to be restored.
+     */
+    @MainThread
+    public final void setSnapshotAdapter(@Nullable SnapshotAdapter<T> snapshotAdapter) {
+        this.snapshotAdapter = snapshotAdapter;
+    }
+
+    /**
+     * Returns the adapter set by {@link #setSnapshotAdapter(SnapshotAdapter)}, or null if none is
+     * set.
+     */
+    @Nullable
+    public final SnapshotAdapter<T> getSnapshotAdapter() {
+        return snapshotAdapter;
+    }
+
+    /**
+     * Sets the scheduler used to deliver callbacks that can't be delivered right away, or null to
+     * use {@link DeliverySchedulers#getDefault()}. This is normally called for you by {@link
+     * LoaderManager} if it was given a scheduler. This should be called before the loader is
+     * started.
+     */
+    @MainThread
+    public final void setDeliveryScheduler(@Nullable DeliveryScheduler deliveryScheduler) {
+        int methods = pendingMethods;
+        clearPendingCallbacks();
+        this.deliveryScheduler = deliveryScheduler;
+        if (methods != 0) {
+            postCallbacks(methods, false);
+        }
+    }
+
+    /**
+     * Returns the scheduler used to deliver callbacks that can't be delivered right away.
+     */
+    public final DeliveryScheduler getDeliveryScheduler() {
+        DeliveryScheduler scheduler = deliveryScheduler;
+        return scheduler != null ? scheduler : DeliverySchedulers.getDefault();
+    }
+
+    /**
+     * Set the callbacks for the loader. This is normally called for you by {@link LoaderManager}.
+     * Data will be delivered of if the loader already has it. Otherwise, {@link
+     * Callbacks#onLoaderStart()} will be called to give you the opportunity to show any loading
+     * ui. You may pass in null to clear the callbacks. This must be called on the main thread.
+     */
+    @MainThread
+    public final void setCallbacks(@Nullable final Callbacks<T> callbacks) {
+        boolean wasAttached = this.callbacks != null;
+        this.callbacks = callbacks;
+        clearPendingCallbacks();
+        if (!wasAttached && callbacks != null) {
+            onAttach();
+        } else if (wasAttached && callbacks == null) {
+            onDetach();
+        }
+        if (callbacks != null) {
+            int methods = 0;
+            if (hasResult()) {
+                methods |= CALLBACKS_RESULT;
+            } else if (isRunning()) {
+                methods |= CALLBACKS_START;
+            }
+            if (isSuccess()) {
+                methods |= CALLBACKS_SUCCESS;
+            } else if (isError()) {
+                methods |= CALLBACKS_ERROR;
+            }
+            dispatchCallbacks(callbacks, methods);
+        }
+    }
+
+    /**
+     * Returns the callbacks that was set by {@link #setCallbacks(Callbacks)}, or null if none are
+     * set.
+     */
+    @Nullable
+    @MainThread
+    public final Callbacks<T> getCallbacks() {
+        return callbacks;
+    }
+
+    /**
+     * Delivers the given callback methods from the loader's current state. The result and error
+     * are read from the loader's own fields instead of being copied into a message so that
+     * re-delivering on every {@link #setCallbacks(Callbacks)} does not allocate.
+     */
+    void dispatchCallbacks(Callbacks<T> callbacks, int methods) {
+        if ((methods & CALLBACKS_RESULT) == CALLBACKS_RESULT) {
+            traceResult(callbacks);
+        } else if ((methods & CALLBACKS_START) == CALLBACKS_START) {
+            callbacks.onLoaderStart();
+        }
+        if ((methods & CALLBACKS_SUCCESS) == CALLBACKS_SUCCESS) {
+            callbacks.onLoaderSuccess();
+        } else if ((methods & CALLBACKS_ERROR) == CALLBACKS_ERROR) {
+            callbacks.onLoaderError(cachedError);
+        }
+    }
+
+    /**
+     * Delivers the cached result to the given callbacks. Loaders that cache their result somewhere
+     * other than {@link #cachedResult} override this to deliver it.
+     */
+    void dispatchResult(Callbacks<T> callbacks) {
+        callbacks.onLoaderResult(cachedResult);
+    }
+
+    /**
+     * Calls {@link #dispatchResult(Callbacks)} in a trace section if tracing is enabled.
+     */
+    private void traceResult(Callbacks<T> callbacks) {
+        LoaderTracer tracer = LoaderTracing.getTracer();
+        if (tracer == null) {
+            dispatchResult(callbacks);
+            return;
+        }
+        tracer.beginSection(getTraceName() + " onLoaderResult");
+        try {
+            dispatchResult(callbacks);
+        } finally {
+            tracer.endSection();
+        }
+    }
+
+    /**
+     * Returns the name trace sections for this loader start with, the loader's class name and id.
+     */
+    String getTraceName() {
+        String name = traceName;
+        if (name == null) {
+            String className = getClass().getSimpleName();
+            if (className.isEmpty()) {
+                // Anonymous class
+                className = getClass().getName();
+                className = className.substring(className.lastIndexOf('.') + 1);
+            }
+            name = className + "#" + id;
+            traceName = name;
+        }
+        return name;
+    }
+
+    /**
+     * Returns true if the loader only keeps running to observe changes to the result it has
+     * delivered, like a cursor loader waiting on it's content observer. {@link
+     * LoaderManager.TrimPolicy#DEFAULT} trims these like loaders that have completed.
+     */
+    boolean isObserving() {
+        return false;
+    }
+
+    /**
+     * Called by {@link LoaderManager} after it cancels the loader to drop it's result. Loaders that
+     * hold on to resources for their result outside of {@link #cachedResult} release them here, the
+     * loader is started again before it's callbacks see a result.
+     */
+    void onTrim() {
+    }
+
+    /**
+     * Returns the cached result. Loaders that cache their result somewhere other than {@link
+     * #cachedResult} override this to return it.
+     */
+    T getCachedResult() {
+        return cachedResult;
+    }
+
+    /**
+     * Sets the cached result. Loaders that cache their result somewhere other than {@link
+     * #cachedResult} override this to store it.
+     */
+    void setCachedResult(T result) {
+        cachedResult = result;
+    }
+
+    /**
+     * Restores a result read from a snapshot, it will be delivered like any other result until the
+     * loader delivers a new one.
+     */
+    void restoreResult(T result) {
+        setCachedResult(result);
+        state.set(state.get() | STATE_HAS_RESULT);
+    }
+
+    /**
+     * Posts the given callback methods to be delivered from the loader's state at the time they
+     * run, either as soon as possible or on the next frame. Methods posted before a previous
+     * delivery has run are merged into it.
+     */
+    void postCallbacks(int methods, boolean onFrame) {
+        boolean alreadyPosted = pendingMethods != 0;
+        pendingMethods |= methods;
+        if (!alreadyPosted) {
+            if (metrics != null) {
+                postNanos = System.nanoTime();
+            }
+            if (onFrame) {
+                getDeliveryScheduler().scheduleOnFrame(delivery, dispatchToken);
+            } else {
+                getDeliveryScheduler().schedule(delivery, dispatchToken);
+            }
+        }
+    }
+
+    /**
+     * Called by the {@link DeliveryScheduler} to deliver posted callbacks. Does nothing if they have
+     * since been cleared with {@link #clearPendingCallbacks()}.
+     */
+    void deliverPendingCallbacks(int token) {
+        if (token != dispatchToken) {
+            return;
+        }
+        int methods = pendingMethods;
+        pendingMethods = 0;
+        if (callbacks != null && methods != 0) {
+            LoaderMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.onCallbacksDelivered(id, this, System.nanoTime() - postNanos);
+            }
+            dispatchCallbacks(callbacks, methods);
+        }
+    }
+
+    /**
+     * Reports the time to the first result since the loader was started, if metrics are enabled.
+     */
+    private void recordResult() {
+        LoaderMetrics metrics = this.metrics;
+        if (metrics != null && awaitingFirstResult) {
+            awaitingFirstResult = false;
+            metrics.onLoaderFirstResult(id, this, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Reports the time to completion since the loader was started, if metrics are enabled.
+     */
+    private void recordComplete(@Nullable Throwable error) {
+        LoaderMetrics metrics = this.metrics;
+        if (metrics != null) {
+            awaitingFirstResult = false;
+            metrics.onLoaderComplete(id, this, System.nanoTime() - startNanos, error);
+        }
+        endTrace();
+    }
+
+    /**
+     * Ends the async trace section begun when the loader started, if there is one.
+     */
+    private void endTrace() {
+        int cookie = traceCookie;
+        if (cookie != 0) {
+            traceCookie = 0;
+            LoaderTracer tracer = LoaderTracing.getTracer();
+            if (tracer != null) {
+                tracer.endAsyncSection(getTraceName(), cookie);
+            }
+        }
+    }
+
+    /**
+     * Immediately delivers any posted callbacks that haven't run yet so that they are not
+     * delivered out of order with a direct delivery.
+     */
+    private void flushPendingCallbacks() {
+        int methods = pendingMethods;
+        if (methods != 0) {
+            clearPendingCallbacks();
+            if (callbacks != null) {
+                dispatchCallbacks(callbacks, methods);
+            }
+        }
+    }
+
+    /**
+     * Drops any posted callbacks. This doesn't touch the message queue, the posted message is just
+     * ignored when it runs.
+     */
+    private void clearPendingCallbacks() {
+        if (pendingMethods != 0) {
+            pendingMethods = 0;
+            dispatchToken++;
+        }
+    }
+
+    /**
+     * Receives results from the loader and notifies the loader's callbacks.
+     */
+    public final class Receiver {
+        /**
+         * If the receiver is canceled, ignore any delivered results.
+         */
+        private static final int CANCELED = 1;
+        /**
+         * If the receiver is success, any calls to {@link #result(Object)} is an error.
+         */
+        private static final int SUCCESS = 2;
+        /**
+         * If the receiver is error, any calls to {@link #result(Object)} is an error.
+         */
+        private static final int ERROR = 3;
+
+        /**
+         * It's possible that a result is immediately delivered inside {@link
+         * #onStart(Loader.Receiver)}. Because we don't want to surprise our consumer with
+         * immediate results, we post them to the {@link DeliveryScheduler} in this case. If more
+         * than one result is delivered before then, only the last one is.
+         */
+        private static final int SYNCHRONOUS = 4;
+
+        int myState = 0;
+
+        /**
+         * Deliver a result to {@link Callbacks#onLoaderResult(Object)}. When you are done
+         * delivering results you should call {@link #success()}. If the loader has already been
+         * canceled, then the result is ignored as it is not expected to be used. This must be run
+         * on the main thread.
+         */
+        @MainThread
+        public final void result(T result) {
+            if (!beginResult()) {
+                return;
+            }
+            cachedResult = result;
+            deliverResult();
+        }
+
+        /**
+         * Checks that a result may be delivered and marks the loader as having one. Returns false
+         * if the receiver has been canceled and the result should be ignored. The caller should
+         * then store the result and call {@link #deliverResult()}.
+         */
+        boolean beginResult() {
+            if ((myState & CANCELED) == CANCELED) {
+                return false;
+            }
+            if ((myState & SUCCESS) == SUCCESS) {
+                throw new IllegalStateException("cannot call result() after success()");
+            }
+            if ((myState & ERROR) == ERROR) {
+                throw new IllegalStateException("cannot call result() after error()");
+            }
+
+            if ((myState & SYNCHRONOUS) != SYNCHRONOUS && !conflateResults) {
+                // A posted delivery reads the result when it runs, so deliver the one it's for
+                // before it's replaced.
+                flushPendingCallbacks();
+            }
+            int s = state.get();
+            state.set(s | STATE_HAS_RESULT);
+            snapshotStale = true;
+            recordResult();
+            return true;
+        }
+
+        /**
+         * Delivers the result stored after {@link #beginResult()} to the callbacks.
+         */
+        void deliverResult() {
+            if (callbacks != null) {
+                if ((myState & SYNCHRONOUS) == SYNCHRONOUS) {
+                    postCallbacks(CALLBACKS_RESULT, false);
+                } else if (conflateResults) {
+                    postCallbacks(CALLBACKS_RESULT, true);
+                } else {
+                    traceResult(callbacks);
+                }
+            }
+        }
+
+        /**
+         * Deliver a result to {@link Callbacks#onLoaderResult(Object)}. If there is an error, you
+         * should not deliver any more results, nor call {@link #success()}. If the loader has
+         * already been canceled, then the result is ignored as it is not expected to be used. This
+         * must be run on the main thread.
+         */
+        @MainThread
+        public final void error(Throwable error) {
+            if ((myState & CANCELED) == CANCELED) {
+                return;
+            }
+            if ((myState & SUCCESS) == SUCCESS) {
+                throw new IllegalStateException("cannot call result() after success()");
+            }
+            if ((myState & ERROR) == ERROR) {
+                throw new IllegalStateException("error() already called");
+            }
+
+            int s = state.get();
+            state.set((s & ~STATE_RUNNING) | STATE_ERROR);
+            recordComplete(error);
+
+            cachedError = error;
+            if (callbacks != null) {
+                if ((myState & SYNCHRONOUS) == SYNCHRONOUS) {
+                    postCallbacks(CALLBACKS_ERROR, false);
+                } else {
+                    flushPendingCallbacks();
+                    callbacks.onLoaderError(error);
+                }
+            }
+        }
+
+        /**
+         * Marks the loader as success and triggers {@link Callbacks#onLoaderSuccess()} If the
+         * loader has already been canceled then the call will be ignored. This must be called on
+         * the main thread.
+         */
+        @MainThread
+        public final void success() {
+            if ((myState & CANCELED) == CANCELED) {
+                return;
+            }
+            if ((myState & SUCCESS) == SUCCESS) {
+                throw new IllegalStateException("success() already called");
+            }
+            if ((myState & ERROR) == ERROR) {
+                throw new IllegalStateException("cannot call success() after error()");
+            }
+            myState |= SUCCESS;
+
+            int s = state.get();
+            state.set((s & ~STATE_RUNNING) | STATE_SUCCESS);
+            recordComplete(null);
+
+            if (callbacks != null) {
+                if ((myState & SYNCHRONOUS) == SYNCHRONOUS) {
+                    postCallbacks(CALLBACKS_SUCCESS, false);
+                } else {
+                    flushPendingCallbacks();
+                    callbacks.onLoaderSuccess();
+                }
+            }
+        }
+
+        /**
+         * Delivers a result and completes the loader. This is a convenience for calling {@link
+         * #result(Object)} followed by {@link #success()}. This must be called on the main thread.
+         */
+        @MainThread
+        public void success(T result) {
+            result(result);
+            success();
+        }
+    }
+
+    /**
+     * Creates a {@link Loader}. This is passed into {@link LoaderManager#init(int, Create,
+     * Callbacks)}
+     * instead of an instance of the loader itself because a new loader may not need to be created
+     * if one already exists.
+     *
+     * It is common for implementations of {@link Loader} to provide an implementation of this for
+     * ease of use for consumers.
+     */
+    public interface Create<L extends Loader> {
+        L create();
+    }
+
+    /**
+     * Converts a loader's result to and from the compact binary form stored by {@link
+     * SnapshotStore}.
+     *
+     * @see #setSnapshotAdapter(SnapshotAdapter)
+     */
+    public interface SnapshotAdapter<T> {
+        /**
+         * Writes the result. This is called on the main thread, the written bytes are saved to disk
+         * in the background. If this throws, the snapshot is skipped and the previous one is
+         * deleted.
+         */
+        void write(T result, DataOutput out) throws IOException;
+
+        /**
+         * Reads a result written by {@link #write(Object, DataOutput)} from the memory-mapped
+         * snapshot. Return null if the result can't be read, if this throws a runtime exception
+         * the snapshot is deleted.
+         */
+        @Nullable
+        T read(ByteBuffer in) throws IOException;
+    }
+
+    /**
+     * Implement this callback to listen to data from the loader.
+     */
+    public interface Callbacks<T> {
+        /**
+         * Called when the loader is started and when the loader is running but does not yet have a
+         * result when the callback is attached.
+         */
+        void onLoaderStart();
+
+        /**
+         * Called when the loader delivers a result and with the last result when the callback is
+         * attached if it exists.
+         */
+        void onLoaderResult(T result);
+
+        /**
+         * Called when the loader terminates with an error. No more results will be delivered and
+         * {@link #onLoaderSuccess()} will not be called.
+         */
+        void onLoaderError(Throwable error);
+
+        /**
+         * Called when the loader completes successfully and will deliver no more results and when
+         * the loader was completed when the callback is attached.
+         */
+        void onLoaderSuccess();
+    }
+
+    public static abstract class CallbacksAdapter<T> implements Callbacks<T> {
+        @Override
+        public void onLoaderStart() {
+
+        }
+
+        @Override
+        public void onLoaderResult(T result) {
+
+        }
+
+        @Override
+        public void onLoaderError(Throwable error) {
+
+        }
+
+        @Override
+        public void onLoaderSuccess() {
+
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.Nullable;
+
+/**
+ * Manges a set of loaders in the same scope. You should retain this instance across configuration
+ * changes, calling {@link #start()}, {@link #stop()}, {@link #detach()}, and {@link #destroy()}
+ * as needed.
+ * <pre>
+ * init()+-->start()+-->stop()+-->detach()+-->destroy()
+ *   ^         ^----------+          +
+ *   +-------------------------------+
+ * </pre>
+ */
+public class LoaderManager {
+
+    private IntMap<Loader<?>> loaders = new IntMap<>(1);
+    private IntMap<Loader.Callbacks<?>> loaderCallbacks = new IntMap<>(1);
+    private TrimPolicy trimPolicy = TrimPolicy.DEFAULT;
+    @Nullable
+    private SnapshotStore snapshotStore;
+    @Nullable
+    private final DeliveryScheduler deliveryScheduler;
+    @Nullable
+    private LoaderMetrics metrics;
+
+    /**
+     * Creates a loader manager whose loaders use {@link DeliverySchedulers#getDefault()}.
+     */
+    public LoaderManager() {
+        this(null);
+    }
+
+    /**
+     * Creates a loader manager that sets the given scheduler on every loader it creates, or uses
+     * {@link DeliverySchedulers#getDefault()} if it's null.
+     */
+    public LoaderManager(@Nullable DeliveryScheduler deliveryScheduler) {
+        this.deliveryScheduler = deliveryScheduler;
+    }
+
+    /**
+     * Initializes a loader, creating it if it doesn't already exist.
+     *
+     * @param id        The id to init the loader with, this must be unique for this loader
+     *                  manager.
+     * @param create    Method for creating the loader if it does not already exist.
+     * @param callbacks The loader callbacks.
+     */
+    @MainThread
+    public <T, L extends Loader<T>> L init(int id, Loader.Create<L> create, Loader.Callbacks<T> callbacks) {
+        @SuppressWarnings("unchecked")
+        L loader = (L) loaders.get(id);
+        if (loader == null) {
+            loader = create.create();
+            if (deliveryScheduler != null) {
+                loader.setDeliveryScheduler(deliveryScheduler);
+            }
+            loader.id = id;
+            loader.metrics = metrics;
+            loaders.put(id, loader);
+            restoreSnapshot(id, loader);
+        }
+        if (loader.isAttached()) {
+            throw new IllegalStateException("Loader " + loader + " already has callbacks. Make sure you are using unique ids and the LoaderManager was properly detached.");
+        }
+        if (loaderCallbacks != null) {
+            if (loaderCallbacks.get(id) != null)  {
+                throw new IllegalStateException("Loader " + loader + " already has callbacks. Make sure you are using unique ids and the LoaderManager was properly detached.");
+            }
+            loaderCallbacks.put(id, callbacks);
+        } else {
+            loader.setCallbacks(callbacks);
+        }
+        return loader;
+    }
+
+    /**
+     * Sets the callbacks of the loader with the given id, which must already be initialized. If
+     * the loader manager is stopped they're held on to and set when it's started again.
+     */
+    @MainThread
+    <T> void setCallbacks(int id, @Nullable Loader.Callbacks<T> callbacks) {
+        @SuppressWarnings("unchecked")
+        Loader<T> loader = (Loader<T>) loaders.get(id);
+        if (loader == null) {
+            return;
+        }
+        if (loaderCallbacks != null) {
+            loaderCallbacks.put(id, callbacks);
+        } else {
+            loader.setCallbacks(callbacks);
+        }
+    }
+
+    /**
+     * Destroys and removes the loader with the given id.
+     */
+    @MainThread
+    public void remove(int id) {
+        Loader<?> loader = loaders.get(id);
+        if (loaderCallbacks != null) {
+            loaderCallbacks.remove(id);
+        }
+        if (loader != null) {
+            loader.setCallbacks(null);
+            loader.destroy();
+            loaders.remove(id);
+        }
+        if (snapshotStore != null) {
+            snapshotStore.delete(id);
+        }
+    }
+
+    /**
+     * Starts delivering results to it's callbacks.
+     */
+    @MainThread
+    @SuppressWarnings("unchecked")
+    public void start() {
+        if (loaderCallbacks == null) {
+            return;
+        }
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader loader = loaders.valueAt(i);
+            if (loader != null) {
+                Loader.Callbacks<?> callbacks = this.loaderCallbacks.get(loaders.keyAt(i));
+                loader.setCallbacks(callbacks);
+                if (loader.trimmed) {
+                    loader.start();
+                }
+            }
+        }
+        loaderCallbacks = null;
+    }
+
+    /**
+     * Stops delivering loader results to it's callbacks. Unlike {@link #detach()} this does
+     * <em>not</em> destroy references to the callbacks so they you can start delivering results to
+     * them again without another {@link #init(int, Loader.Create, Loader.Callbacks)}.
+     */
+    @MainThread
+    public void stop() {
+        if (loaderCallbacks != null) {
+           return; 
+        }
+        writeSnapshots();
+        loaderCallbacks = new IntMap<>(loaders.size());
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null) {
+                loaderCallbacks.put(loaders.keyAt(i), loader.getCallbacks());
+                loader.setCallbacks(null);
+            }
+        }
+    }
+
+    /**
+     * Detaches the callbacks from the loaders. You must call then when your context is being
+     * destroyed to prevent leaks.
+     */
+    @MainThread
+    public void detach() {
+        writeSnapshots();
+        loaderCallbacks = new IntMap<>(loaders.size());
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null) {
+                loader.setCallbacks(null);
+            }
+        }
+    }
+
+    /**
+     * Detaches and destroys all loaders. You should call this when you know you won't need any
+     * anymore like when your activity is finishing.
+     */
+    @MainThread
+    public void destroy() {
+        loaderCallbacks = null;
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null) {
+                loader.destroy();
+            }
+        }
+        loaders.clear();
+    }
+
+    /**
+     * Sets the metrics that all loaders in this loader manager report their timings to, or null to
+     * stop reporting them.
+     *
+     * @see HistogramLoaderMetrics
+     */
+    @MainThread
+    public void setMetrics(@Nullable LoaderMetrics metrics) {
+        this.metrics = metrics;
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null) {
+                loader.metrics = metrics;
+            }
+        }
+    }
+
+    /**
+     * Sets the store used to persist the results of loaders that have a {@link
+     * Loader.SnapshotAdapter}. Results are written when the loader manager is stopped or detached,
+     * and restored when a loader is created in {@link #init(int, Loader.Create, Loader.Callbacks)}
+     * so set this before initializing any loaders. Pass null to stop persisting results.
+     */
+    @MainThread
+    public void setSnapshotStore(@Nullable SnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    private <T> void restoreSnapshot(int id, Loader<T> loader) {
+        Loader.SnapshotAdapter<T> adapter = loader.getSnapshotAdapter();
+        if (snapshotStore == null || adapter == null) {
+            return;
+        }
+        T result = snapshotStore.read(id, adapter);
+        if (result != null) {
+            loader.restoreResult(result);
+        }
+    }
+
+    private void writeSnapshots() {
+        if (snapshotStore == null) {
+            return;
+        }
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null && loader.snapshotStale) {
+                writeSnapshot(loaders.keyAt(i), loader);
+            }
+        }
+    }
+
+    private <T> void writeSnapshot(int id, Loader<T> loader) {
+        Loader.SnapshotAdapter<T> adapter = loader.getSnapshotAdapter();
+        if (adapter != null && loader.hasResult() && !loader.isError()) {
+            snapshotStore.write(id, loader.getCachedResult(), adapter);
+            loader.snapshotStale = false;
+        }
+    }
+
+    /**
+     * Sets the policy used to decide which loaders drop their results in {@link
+     * #onTrimMemory(int)}. The default is {@link TrimPolicy#DEFAULT}.
+     */
+    public void setTrimPolicy(TrimPolicy trimPolicy) {
+        this.trimPolicy = trimPolicy;
+    }
+
+    /**
+     * Drops the cached results of loaders according to the {@link TrimPolicy} to free up memory.
+     * This only happens while the loader manager is stopped or detached, a loader that has it's
+     * result dropped is restarted on the next {@link #start()}. Loaders that keep running only to
+     * observe changes, like a {@code CursorLoader}, close their result and stop observing when
+     * trimmed, they query again on the next start. On android you should forward {@code
+     * ComponentCallbacks2.onTrimMemory(int)} to this, for example with {@code
+     * TrimMemoryCallbacks}.
+     */
+    @MainThread
+    public void onTrimMemory(int level) {
+        if (loaderCallbacks == null) {
+            return;
+        }
+        for (int i = 0, size = loaders.size(); i < size; i++) {
+            Loader<?> loader = loaders.valueAt(i);
+            if (loader != null && trimPolicy.shouldTrim(loader, level)) {
+                loader.cancel();
+                loader.onTrim();
+                loader.trimmed = true;
+            }
+        }
+    }
+
+    /**
+     * Decides which loaders drop their results when memory is low.
+     *
+     * @see #setTrimPolicy(TrimPolicy)
+     */
+    public interface TrimPolicy {
+        // Same values as android's ComponentCallbacks2.
+        int TRIM_MEMORY_RUNNING_MODERATE = 5;
+        int TRIM_MEMORY_RUNNING_LOW = 10;
+        int TRIM_MEMORY_RUNNING_CRITICAL = 15;
+        int TRIM_MEMORY_UI_HIDDEN = 20;
+        int TRIM_MEMORY_BACKGROUND = 40;
+        int TRIM_MEMORY_MODERATE = 60;
+        int TRIM_MEMORY_COMPLETE = 80;
+
+        /**
+         * Drops the results of completed loaders when the process is running low on memory or has
+         * been moved to the background. Loaders that are still running are left alone, unless they
+         * are only observing changes to the result they have delivered.
+         */
+        TrimPolicy DEFAULT = new TrimPolicy() {
+            @Override
+            public boolean shouldTrim(Loader<?> loader, int level) {
+                if (!loader.hasResult() || (loader.isRunning() && !loader.isObserving())) {
+                    return false;
+                }
+                return level >= TRIM_MEMORY_BACKGROUND
+                        || (level >= TRIM_MEMORY_RUNNING_LOW && level < TRIM_MEMORY_UI_HIDDEN);
+            }
+        };
+
+        /**
+         * Never drops any results.
+         */
+        TrimPolicy NEVER = new TrimPolicy() {
+            @Override
+            public boolean shouldTrim(Loader<?> loader, int level) {
+                return false;
+            }
+        };
+
+        /**
+         * Returns true if the given loader should drop it's result for the given trim level, one
+         * of the {@code TRIM_MEMORY_*} constants.
+         */
+        boolean shouldTrim(Loader<?> loader, int level);
+    }
+}
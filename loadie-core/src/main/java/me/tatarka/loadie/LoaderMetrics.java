@@ -0,0 +1,43 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Receives timings for loaders managed by a {@link LoaderManager}. All methods are called on the
+ * thread the loader is used on, usually the main thread, so implementations should be cheap. See
+ * {@link HistogramLoaderMetrics} for an implementation that keeps histograms per loader.
+ *
+ * @see LoaderManager#setMetrics(LoaderMetrics)
+ */
+public interface LoaderMetrics {
+    /**
+     * Called when the loader with the given id starts running.
+     *
+     * @param restart true if the loader has run before.
+     */
+    void onLoaderStart(int id, Loader<?> loader, boolean restart);
+
+    /**
+     * Called with the time from the loader starting to it's first result.
+     */
+    void onLoaderFirstResult(int id, Loader<?> loader, long elapsedNanos);
+
+    /**
+     * Called with the time from the loader starting to it completing with either {@link
+     * Loader.Receiver#success()} or {@link Loader.Receiver#error(Throwable)}.
+     *
+     * @param error the error, or null if the loader completed successfully.
+     */
+    void onLoaderComplete(int id, Loader<?> loader, long elapsedNanos, @Nullable Throwable error);
+
+    /**
+     * Called when the loader is canceled while running.
+     */
+    void onLoaderCancel(int id, Loader<?> loader);
+
+    /**
+     * Called with the time posted callbacks waited on the {@link DeliveryScheduler} before they
+     * were delivered.
+     */
+    void onCallbacksDelivered(int id, Loader<?> loader, long latencyNanos);
+}
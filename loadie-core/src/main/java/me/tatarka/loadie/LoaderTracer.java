@@ -0,0 +1,32 @@
+package me.tatarka.loadie;
+
+/**
+ * Receives trace sections for loader work so it shows up in a profiler. On android, {@code
+ * AndroidLoaderTracer} forwards these to {@code android.os.Trace} for systrace and perfetto.
+ *
+ * @see LoaderTracing#setTracer(LoaderTracer)
+ */
+public interface LoaderTracer {
+    /**
+     * Begins a section on the calling thread, sections must be ended on the same thread in the
+     * reverse order they were begun.
+     */
+    void beginSection(String name);
+
+    /**
+     * Ends the last section begun on the calling thread.
+     */
+    void endSection();
+
+    /**
+     * Begins a section that may end on a different thread or after other sections have ended. The
+     * cookie identifies the section when there are several with the same name.
+     */
+    void beginAsyncSection(String name, int cookie);
+
+    /**
+     * Ends a section begun with {@link #beginAsyncSection(String, int)} with the same name and
+     * cookie.
+     */
+    void endAsyncSection(String name, int cookie);
+}
@@ -0,0 +1,63 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in tracing of loader work. When a {@link LoaderTracer} is set, each loader traces {@link
+ * Loader#onStart(Loader.Receiver)} and {@link Loader.Callbacks#onLoaderResult(Object)} as sections,
+ * and the time from starting to completing or being canceled as an async section. Sections are
+ * named after the loader's class and it's id in the {@link LoaderManager}, for example {@code
+ * MyLoader#1 onStart}. Tracing is off by default, and while it's off each section costs a single
+ * volatile read.
+ */
+public final class LoaderTracing {
+
+    @Nullable
+    private static volatile LoaderTracer tracer;
+    private static final AtomicInteger cookies = new AtomicInteger();
+
+    private LoaderTracing() {
+    }
+
+    /**
+     * Sets the tracer to send sections to, or null to disable tracing.
+     */
+    public static void setTracer(@Nullable LoaderTracer tracer) {
+        LoaderTracing.tracer = tracer;
+    }
+
+    /**
+     * Returns the tracer sections are sent to, or null if tracing is disabled.
+     */
+    @Nullable
+    public static LoaderTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Returns if a tracer is set.
+     */
+    public static boolean isEnabled() {
+        return tracer != null;
+    }
+
+    /**
+     * Begins a section for the given method of the given loader if tracing is enabled. Returns the
+     * tracer the section was begun on, which {@link LoaderTracer#endSection()} must be called on
+     * when the method returns, or null if tracing is disabled.
+     */
+    @Nullable
+    public static LoaderTracer beginSection(Loader<?> loader, String method) {
+        LoaderTracer tracer = LoaderTracing.tracer;
+        if (tracer != null) {
+            tracer.beginSection(loader.getTraceName() + " " + method);
+        }
+        return tracer;
+    }
+
+    static int nextCookie() {
+        return cookies.incrementAndGet();
+    }
+}
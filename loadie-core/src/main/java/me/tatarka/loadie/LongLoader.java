@@ -0,0 +1,122 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+
+/**
+ * A {@link Loader} that delivers {@code long} results without boxing them. Implement {@link
+ * #onStart(LongReceiver)} instead of {@link #onStart(Loader.Receiver)} and deliver results with
+ * {@link LongReceiver#result(long)}. Results are delivered to {@link
+ * LongCallbacks#onLoaderResult(long)} if the callbacks implement {@link LongCallbacks}, otherwise
+ * they are boxed and delivered to {@link Loader.Callbacks#onLoaderResult(Object)}. The lifecycle
+ * is otherwise the same as {@link Loader}.
+ */
+public abstract class LongLoader extends Loader<Long> {
+
+    long cachedLongResult;
+
+    @Override
+    protected final void onStart(Receiver receiver) {
+        onStart(new LongReceiver(receiver));
+    }
+
+    /**
+     * Do your loader work, see {@link Loader#onStart(Loader.Receiver)}.
+     */
+    protected abstract void onStart(LongReceiver receiver);
+
+    @Override
+    void dispatchResult(Loader.Callbacks<Long> callbacks) {
+        if (callbacks instanceof LongCallbacks) {
+            ((LongCallbacks) callbacks).onLoaderResult(cachedLongResult);
+        } else {
+            callbacks.onLoaderResult(cachedLongResult);
+        }
+    }
+
+    @Override
+    Long getCachedResult() {
+        return cachedLongResult;
+    }
+
+    @Override
+    void setCachedResult(Long result) {
+        cachedLongResult = result;
+    }
+
+    /**
+     * Receives {@code long} results from the loader and notifies the loader's callbacks.
+     *
+     * @see Loader.Receiver
+     */
+    public final class LongReceiver {
+        private final Receiver receiver;
+
+        LongReceiver(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        /**
+         * Deliver a result to {@link LongCallbacks#onLoaderResult(long)}, see {@link
+         * Loader.Receiver#result(Object)}. This must be run on the main thread.
+         */
+        @MainThread
+        public void result(long result) {
+            if (!receiver.beginResult()) {
+                return;
+            }
+            cachedLongResult = result;
+            receiver.deliverResult();
+        }
+
+        /**
+         * Deliver an error, see {@link Loader.Receiver#error(Throwable)}. This must be run on the
+         * main thread.
+         */
+        @MainThread
+        public void error(Throwable error) {
+            receiver.error(error);
+        }
+
+        /**
+         * Marks the loader as success, see {@link Loader.Receiver#success()}. This must be run on
+         * the main thread.
+         */
+        @MainThread
+        public void success() {
+            receiver.success();
+        }
+
+        /**
+         * Delivers a result and completes the loader. This is a convenience for calling {@link
+         * #result(long)} followed by {@link #success()}. This must be called on the main thread.
+         */
+        @MainThread
+        public void success(long result) {
+            result(result);
+            success();
+        }
+    }
+
+    /**
+     * Implement this callback to listen to {@code long} results from the loader without boxing.
+     */
+    public interface LongCallbacks extends Loader.Callbacks<Long> {
+        /**
+         * Called when the loader delivers a result and with the last result when the callback is
+         * attached if it exists.
+         */
+        void onLoaderResult(long result);
+    }
+
+    public static abstract class LongCallbacksAdapter extends Loader.CallbacksAdapter<Long> implements LongCallbacks {
+        @Override
+        public final void onLoaderResult(Long result) {
+            onLoaderResult(result.longValue());
+        }
+
+        @Override
+        public void onLoaderResult(long result) {
+
+        }
+    }
+}
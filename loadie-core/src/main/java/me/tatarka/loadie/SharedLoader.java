@@ -0,0 +1,232 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+
+import java.util.HashMap;
+
+/**
+ * A {@link Loader} that shares it's work with all other running shared loaders with the same key,
+ * even across {@link LoaderManager}s. The first loader to start runs {@link
+ * #onStartShared(SharedReceiver)}, any that start with the same key while it's still running join
+ * it instead, immediately receiving the latest result if there is one. Every loader receives the
+ * results of the shared work. Canceling a loader only leaves the shared work, {@link
+ * #onCancelShared()} is called once all loaders sharing it have been canceled. Once the shared work
+ * completes, the next loader to start with that key runs it again.
+ *
+ * Since the shared work may outlive the loader that started it, {@link
+ * #onStartShared(SharedReceiver)} and {@link #onCancelShared()} should only rely on what was passed
+ * to the loader when it was created. All loaders with the same key must deliver the same type of
+ * result.
+ *
+ * @param <T> The type of result that the loader will deliver
+ */
+public abstract class SharedLoader<T> extends Loader<T> {
+
+    private static final HashMap<Object, Flight<?>> flights = new HashMap<>();
+
+    private final Object key;
+    private Flight<T> flight;
+    private Receiver joinedReceiver;
+
+    /**
+     * @param key Identifies the work this loader does. Loaders with keys that are {@link
+     *            Object#equals(Object)} share it.
+     */
+    protected SharedLoader(Object key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the key that identifies the work this loader does.
+     */
+    public final Object getKey() {
+        return key;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final void onStart(Receiver receiver) {
+        Flight<T> flight = (Flight<T>) flights.get(key);
+        if (flight == null) {
+            flight = new Flight<>(this);
+            flights.put(key, flight);
+            flight.join(receiver);
+            this.flight = flight;
+            this.joinedReceiver = receiver;
+            onStartShared(flight.receiver);
+        } else {
+            this.flight = flight;
+            this.joinedReceiver = receiver;
+            flight.join(receiver);
+        }
+    }
+
+    @Override
+    protected final void onCancel() {
+        Flight<T> flight = this.flight;
+        Receiver receiver = joinedReceiver;
+        this.flight = null;
+        this.joinedReceiver = null;
+        if (flight != null) {
+            flight.leave(receiver);
+        }
+    }
+
+    /**
+     * Do the shared work, see {@link Loader#onStart(Loader.Receiver)}. Results delivered to the
+     * given receiver are delivered to all loaders sharing the work.
+     */
+    protected abstract void onStartShared(SharedReceiver<T> receiver);
+
+    /**
+     * Optionally cancel the shared work because no loaders need it anymore. This is run on the main
+     * thread.
+     */
+    protected void onCancelShared() {
+    }
+
+    /**
+     * Returns the number of loaders sharing the in-flight work for the given key, or 0 if there
+     * isn't any.
+     */
+    @MainThread
+    static int sharedCount(Object key) {
+        Flight<?> flight = flights.get(key);
+        return flight != null ? flight.receivers.length : 0;
+    }
+
+    /**
+     * The in-flight work for a key along with the receivers of all loaders sharing it.
+     */
+    static final class Flight<T> {
+        final SharedLoader<T> owner;
+        final SharedReceiver<T> receiver;
+        /**
+         * Replaced instead of modified so that results can be delivered while a loader leaves.
+         */
+        Loader<T>.Receiver[] receivers;
+        T latestResult;
+        boolean hasResult;
+        boolean done;
+
+        @SuppressWarnings("unchecked")
+        Flight(SharedLoader<T> owner) {
+            this.owner = owner;
+            this.receiver = new SharedReceiver<>(this);
+            this.receivers = (Loader<T>.Receiver[]) new Loader<?>.Receiver[0];
+        }
+
+        void join(Loader<T>.Receiver receiver) {
+            Loader<T>.Receiver[] old = receivers;
+            @SuppressWarnings("unchecked")
+            Loader<T>.Receiver[] receivers = (Loader<T>.Receiver[]) new Loader<?>.Receiver[old.length + 1];
+            System.arraycopy(old, 0, receivers, 0, old.length);
+            receivers[old.length] = receiver;
+            this.receivers = receivers;
+            if (hasResult) {
+                receiver.result(latestResult);
+            }
+        }
+
+        void leave(Loader<T>.Receiver receiver) {
+            Loader<T>.Receiver[] old = receivers;
+            int index = -1;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == receiver) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            Loader<T>.Receiver[] receivers = (Loader<T>.Receiver[]) new Loader<?>.Receiver[old.length - 1];
+            System.arraycopy(old, 0, receivers, 0, index);
+            System.arraycopy(old, index + 1, receivers, index, old.length - index - 1);
+            this.receivers = receivers;
+            if (receivers.length == 0 && !done) {
+                finish();
+                owner.onCancelShared();
+            }
+        }
+
+        void finish() {
+            done = true;
+            latestResult = null;
+            if (flights.get(owner.key) == this) {
+                flights.remove(owner.key);
+            }
+        }
+    }
+
+    /**
+     * Receives results from the shared work and delivers them to every loader sharing it.
+     *
+     * @see Loader.Receiver
+     */
+    public static final class SharedReceiver<T> {
+        private final Flight<T> flight;
+
+        SharedReceiver(Flight<T> flight) {
+            this.flight = flight;
+        }
+
+        /**
+         * Deliver a result to all loaders sharing the work, see {@link
+         * Loader.Receiver#result(Object)}. This must be run on the main thread.
+         */
+        @MainThread
+        public void result(T result) {
+            if (flight.done) {
+                return;
+            }
+            flight.latestResult = result;
+            flight.hasResult = true;
+            for (Loader<T>.Receiver receiver : flight.receivers) {
+                receiver.result(result);
+            }
+        }
+
+        /**
+         * Deliver an error to all loaders sharing the work, see {@link
+         * Loader.Receiver#error(Throwable)}. This must be run on the main thread.
+         */
+        @MainThread
+        public void error(Throwable error) {
+            if (flight.done) {
+                return;
+            }
+            flight.finish();
+            for (Loader<T>.Receiver receiver : flight.receivers) {
+                receiver.error(error);
+            }
+        }
+
+        /**
+         * Completes all loaders sharing the work, see {@link Loader.Receiver#success()}. This must
+         * be run on the main thread.
+         */
+        @MainThread
+        public void success() {
+            if (flight.done) {
+                return;
+            }
+            flight.finish();
+            for (Loader<T>.Receiver receiver : flight.receivers) {
+                receiver.success();
+            }
+        }
+
+        /**
+         * Delivers a result and completes all loaders sharing the work. This is a convenience for
+         * calling {@link #result(Object)} followed by {@link #success()}. This must be called on the
+         * main thread.
+         */
+        @MainThread
+        public void success(T result) {
+            result(result);
+            success();
+        }
+    }
+}
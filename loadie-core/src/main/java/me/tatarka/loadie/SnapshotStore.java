@@ -0,0 +1,223 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stores snapshots of loader results on disk, keyed by loader id, so that they can be restored
+ * after process death. Each snapshot is a small file that is memory-mapped when it's read. Results
+ * are serialized on the calling thread, which is the main thread when {@link LoaderManager} writes
+ * them, so keep {@link Loader.SnapshotAdapter#write(Object, java.io.DataOutput)} cheap. Only the
+ * file writes happen in the background. Give each {@link LoaderManager} it's own directory since
+ * loader ids are only unique within a loader manager.
+ *
+ * @see LoaderManager#setSnapshotStore(SnapshotStore)
+ * @see Loader#setSnapshotAdapter(Loader.SnapshotAdapter)
+ */
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x4c445331; // "LDS1"
+    private static final int HEADER_SIZE = 8;
+
+    private static Executor defaultExecutor;
+
+    private static synchronized Executor getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "loadie-snapshots");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+
+    private final File directory;
+    private final Executor executor;
+
+    /**
+     * Creates a store that saves snapshots in the given directory, writing them on a shared
+     * background thread.
+     */
+    public SnapshotStore(File directory) {
+        this(directory, getDefaultExecutor());
+    }
+
+    /**
+     * Creates a store that saves snapshots in the given directory, writing them on the given
+     * executor. The executor must run tasks in order.
+     */
+    public SnapshotStore(File directory, Executor executor) {
+        this.directory = directory;
+        this.executor = executor;
+    }
+
+    /**
+     * Reads the snapshot for the given id, returning null if there isn't one or it can't be read.
+     * If the adapter throws a runtime exception reading it, the snapshot is deleted.
+     */
+    @Nullable
+    public <T> T read(int id, Loader.SnapshotAdapter<T> adapter) {
+        File file = file(id);
+        if (!file.exists()) {
+            return null;
+        }
+        RandomAccessFile in = null;
+        try {
+            in = new RandomAccessFile(file, "r");
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return null;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != size - HEADER_SIZE) {
+                return null;
+            }
+            try {
+                return adapter.read(buffer.slice());
+            } catch (RuntimeException e) {
+                // The adapter can't read it, don't restore it again.
+                Logger.getLogger(SnapshotStore.class.getName()).log(Level.WARNING, "Failed to read snapshot for loader " + id, e);
+                delete(id);
+                return null;
+            }
+        } catch (IOException | BufferUnderflowException e) {
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes the snapshot for the given id. The result is serialized immediately and then saved in
+     * the background, replacing any existing snapshot. If the adapter fails to write the result,
+     * the failure is logged and the existing snapshot is deleted instead so that an outdated result
+     * isn't restored.
+     */
+    public <T> void write(int id, T result, Loader.SnapshotAdapter<T> adapter) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(0);
+            adapter.write(result, out);
+            out.flush();
+        } catch (IOException e) {
+            Logger.getLogger(SnapshotStore.class.getName()).log(Level.WARNING, "Failed to write snapshot for loader " + id, e);
+            delete(id);
+            return;
+        }
+        byte[] data = bytes.toByteArray();
+        int length = data.length - HEADER_SIZE;
+        data[4] = (byte) (length >>> 24);
+        data[5] = (byte) (length >>> 16);
+        data[6] = (byte) (length >>> 8);
+        data[7] = (byte) length;
+        executor.execute(new WriteTask(file(id), data));
+    }
+
+    /**
+     * Deletes the snapshot for the given id in the background.
+     */
+    public void delete(int id) {
+        final File file = file(id);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                file.delete();
+            }
+        });
+    }
+
+    /**
+     * Deletes all snapshots in the background.
+     */
+    public void clear() {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+            }
+        });
+    }
+
+    private File file(int id) {
+        return new File(directory, "loader-" + id);
+    }
+
+    private static void closeQuietly(@Nullable RandomAccessFile file) {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Writes to a temp file first and renames it so that a snapshot is never partially written.
+     */
+    private static class WriteTask implements Runnable {
+        final File file;
+        final byte[] data;
+
+        WriteTask(File file, byte[] data) {
+            this.file = file;
+            this.data = data;
+        }
+
+        @Override
+        public void run() {
+            File dir = file.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                return;
+            }
+            File tmp = new File(dir, file.getName() + ".tmp");
+            FileOutputStream out = null;
+            try {
+                out = new FileOutputStream(tmp);
+                out.write(data);
+                out.getFD().sync();
+                out.close();
+                out = null;
+                if (!tmp.renameTo(file)) {
+                    tmp.delete();
+                }
+            } catch (IOException e) {
+                tmp.delete();
+            } finally {
+                if (out != null) {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+}
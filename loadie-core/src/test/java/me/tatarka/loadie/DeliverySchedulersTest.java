@@ -0,0 +1,106 @@
+package me.tatarka.loadie;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(JUnit4.class)
+public class DeliverySchedulersTest {
+
+    @After
+    public void teardown() {
+        DeliverySchedulers.setDefault(null);
+    }
+
+    @Test
+    public void immediateDeliversSynchronousResultRightAway() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        LoaderTest.SynchronousLoader loader = new LoaderTest.SynchronousLoader();
+        loader.setDeliveryScheduler(DeliverySchedulers.immediate());
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult(eq("test"));
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void executorDeliversSynchronousResultOnExecutor() {
+        QueueExecutor executor = new QueueExecutor();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        LoaderTest.SynchronousLoader loader = new LoaderTest.SynchronousLoader();
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verify(callbacks).onLoaderResult(eq("test"));
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void executorDeliversConflatedResultOnExecutor() {
+        QueueExecutor executor = new QueueExecutor();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = new TestLoader<>();
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+        loader.result("test1");
+        loader.result("test2");
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verify(callbacks).onLoaderResult(eq("test2"));
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void setDefaultIsUsedByLoaders() {
+        DeliverySchedulers.setDefault(DeliverySchedulers.immediate());
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        LoaderTest.SynchronousLoader loader = new LoaderTest.SynchronousLoader();
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        assertSame(DeliverySchedulers.immediate(), loader.getDeliveryScheduler());
+        verify(callbacks).onLoaderSuccess();
+    }
+
+    static class QueueExecutor implements Executor {
+        final List<Runnable> queue = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+
+        void runAll() {
+            while (!queue.isEmpty()) {
+                queue.remove(0).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JUnit4.class)
+public class HistogramLoaderMetricsTest {
+
+    HistogramLoaderMetrics metrics;
+    LoaderManager loaderManager;
+
+    @Before
+    public void setup() {
+        metrics = new HistogramLoaderMetrics();
+        loaderManager = new LoaderManager();
+        loaderManager.setMetrics(metrics);
+    }
+
+    @Test
+    public void recordsResultAndSuccess() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loader.start();
+        loader.result("test1");
+        loader.result("test2");
+        loader.success();
+
+        HistogramLoaderMetrics.Stats stats = metrics.getStats(TestLoader.class, 0);
+        assertEquals(1, stats.getStartCount());
+        assertEquals(0, stats.getRestartCount());
+        assertEquals(1, stats.getTimeToFirstResult().getCount());
+        assertEquals(1, stats.getTimeToComplete().getCount());
+        assertEquals(0, stats.getErrorCount());
+    }
+
+    @Test
+    public void recordsError() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loader.start();
+        loader.error(new Throwable());
+
+        HistogramLoaderMetrics.Stats stats = metrics.getStats(TestLoader.class, 0);
+        assertEquals(1, stats.getTimeToComplete().getCount());
+        assertEquals(1, stats.getErrorCount());
+    }
+
+    @Test
+    public void recordsRestartAndCancel() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loader.start();
+        loader.restart();
+
+        HistogramLoaderMetrics.Stats stats = metrics.getStats(TestLoader.class, 0);
+        assertEquals(2, stats.getStartCount());
+        assertEquals(1, stats.getRestartCount());
+        assertEquals(1, stats.getCancelCount());
+    }
+
+    @Test
+    public void recordsDeliveryLatency() {
+        DeliverySchedulersTest.QueueExecutor executor = new DeliverySchedulersTest.QueueExecutor();
+        Loader.Callbacks<String> callbacks = new Loader.CallbacksAdapter<String>() {
+        };
+        LoaderTest.SynchronousLoader loader = loaderManager.init(0, new Loader.Create<LoaderTest.SynchronousLoader>() {
+            @Override
+            public LoaderTest.SynchronousLoader create() {
+                return new LoaderTest.SynchronousLoader();
+            }
+        }, callbacks);
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loaderManager.start();
+        loader.start();
+        executor.runAll();
+
+        HistogramLoaderMetrics.Stats stats = metrics.getStats(LoaderTest.SynchronousLoader.class, 0);
+        assertEquals(1, stats.getDeliveryLatency().getCount());
+    }
+
+    @Test
+    public void statsAreKeptPerId() {
+        loaderManager.init(0, TestLoader.<String>create(), null).start();
+        loaderManager.init(1, TestLoader.<String>create(), null).start();
+
+        assertEquals(1, metrics.getStats(TestLoader.class, 0).getStartCount());
+        assertEquals(1, metrics.getStats(TestLoader.class, 1).getStartCount());
+        assertNull(metrics.getStats(TestLoader.class, 2));
+        assertEquals(2, metrics.getAllStats().size());
+    }
+
+    @Test
+    public void setMetricsAppliesToExistingLoaders() {
+        loaderManager.setMetrics(null);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loaderManager.setMetrics(metrics);
+        loader.start();
+
+        assertEquals(1, metrics.getStats(TestLoader.class, 0).getStartCount());
+    }
+}
@@ -0,0 +1,162 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class LoaderAllocationTest {
+
+    static final int ITERATIONS = 10000;
+
+    TestLoader<String> loader;
+    Loader.Callbacks<String> callbacks;
+
+    @Before
+    public void setup() {
+        loader = new TestLoader<>();
+        // Not a mock, mockito allocates to record every invocation.
+        callbacks = new Loader.CallbacksAdapter<String>() {
+        };
+    }
+
+    @Test
+    public void setCallbacksWithResultDoesNotAllocate() {
+        loader.start();
+        loader.result("test");
+        Runnable setCallbacks = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    loader.setCallbacks(null);
+                    loader.setCallbacks(callbacks);
+                }
+            }
+        };
+        setCallbacks.run();
+
+        assertEquals(0, allocatedBytes(setCallbacks));
+    }
+
+    @Test
+    public void setCallbacksWithSuccessDoesNotAllocate() {
+        loader.start();
+        loader.result("test");
+        loader.success();
+        Runnable setCallbacks = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    loader.setCallbacks(null);
+                    loader.setCallbacks(callbacks);
+                }
+            }
+        };
+        setCallbacks.run();
+
+        assertEquals(0, allocatedBytes(setCallbacks));
+    }
+
+    @Test
+    public void deliverResultDoesNotAllocate() {
+        loader.setCallbacks(callbacks);
+        loader.start();
+        Runnable result = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    loader.result("test");
+                }
+            }
+        };
+        result.run();
+
+        assertEquals(0, allocatedBytes(result));
+    }
+
+    @Test
+    public void deliverIntResultDoesNotAllocate() {
+        PrimitiveLoaderTest.TestIntLoader loader = new PrimitiveLoaderTest.TestIntLoader();
+        loader.setCallbacks(new IntLoader.IntCallbacksAdapter() {
+        });
+        loader.start();
+        final IntLoader.IntReceiver receiver = loader.receiver;
+        Runnable result = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    // Past the range Integer.valueOf() caches.
+                    receiver.result(1000 + i);
+                }
+            }
+        };
+        result.run();
+
+        assertEquals(0, allocatedBytes(result));
+    }
+
+    @Test
+    public void deliverLongResultDoesNotAllocate() {
+        PrimitiveLoaderTest.TestLongLoader loader = new PrimitiveLoaderTest.TestLongLoader();
+        loader.setCallbacks(new LongLoader.LongCallbacksAdapter() {
+        });
+        loader.start();
+        final LongLoader.LongReceiver receiver = loader.receiver;
+        Runnable result = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    receiver.result(System.currentTimeMillis());
+                }
+            }
+        };
+        result.run();
+
+        assertEquals(0, allocatedBytes(result));
+    }
+
+    @Test
+    public void deliverDoubleResultDoesNotAllocate() {
+        PrimitiveLoaderTest.TestDoubleLoader loader = new PrimitiveLoaderTest.TestDoubleLoader();
+        loader.setCallbacks(new DoubleLoader.DoubleCallbacksAdapter() {
+        });
+        loader.start();
+        final DoubleLoader.DoubleReceiver receiver = loader.receiver;
+        Runnable result = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ITERATIONS; i++) {
+                    receiver.result(i * 0.5);
+                }
+            }
+        };
+        result.run();
+
+        assertEquals(0, allocatedBytes(result));
+    }
+
+    /**
+     * Returns the number of bytes allocated on the current thread while running the given
+     * runnable, excluding the cost of measuring itself. The runnable is run a few times and the
+     * least is returned, the jit can allocate on the thread when it swaps in compiled code.
+     */
+    private static long allocatedBytes(Runnable runnable) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long overheadStart = bean.getThreadAllocatedBytes(id);
+            long overheadEnd = bean.getThreadAllocatedBytes(id);
+            long start = bean.getThreadAllocatedBytes(id);
+            runnable.run();
+            long end = bean.getThreadAllocatedBytes(id);
+            min = Math.min(min, (end - start) - (overheadEnd - overheadStart));
+        }
+        return min;
+    }
+}
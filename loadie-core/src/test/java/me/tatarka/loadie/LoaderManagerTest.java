@@ -0,0 +1,351 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(JUnit4.class)
+public class LoaderManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    LoaderManager loaderManager;
+
+    @Before
+    public void setup() {
+        loaderManager = new LoaderManager();
+    }
+
+    @Test
+    public void init() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+
+        assertNotNull(loader);
+    }
+
+    @Test
+    public void initTwice() {
+        TestLoader<String> loader1 = loaderManager.init(0, TestLoader.<String>create(), null);
+        TestLoader<String> loader2 = loaderManager.init(0, TestLoader.<String>create(), null);
+
+        assertTrue(loader1 == loader2);
+    }
+
+    @Test
+    public void initDifferentIds() {
+        TestLoader<String> loader1 = loaderManager.init(0, TestLoader.<String>create(), null);
+        TestLoader<String> loader2 = loaderManager.init(1, TestLoader.<String>create(), null);
+
+        assertFalse(loader1 == loader2);
+    }
+
+    @Test
+    public void start_before_init() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loaderManager.start();
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void start_after_init() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loader.start();
+        loaderManager.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void start_after_init1() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), callbacks);
+        loader.start();
+        loaderManager.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void stop() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loaderManager.start();
+        loaderManager.stop();
+        loader.start();
+
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void stop_and_start() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loaderManager.start();
+        loaderManager.stop();
+        loader.start();
+        loaderManager.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void detach() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loader.start();
+        loaderManager.start();
+        loaderManager.detach();
+        loader.result("test");
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void destroy() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loader.start();
+        loaderManager.start();
+        loaderManager.destroy();
+        loader.result("test");
+
+        assertTrue(loader.isCanceled());
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void detachAndReattach() {
+        Loader.Callbacks<String> callbacks1 = mock(Loader.Callbacks.class);
+        Loader.Callbacks<String> callbacks2 = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks1);
+        loader.start();
+        loaderManager.start();
+        loaderManager.detach();
+        loader.result("test");
+
+        loader = loaderManager.init(0, TestLoader.<String>create(), callbacks2);
+        loaderManager.start();
+
+        verify(callbacks1).onLoaderStart();
+        verifyNoMoreInteractions(callbacks1);
+        verify(callbacks2).onLoaderResult(eq("test"));
+        verifyNoMoreInteractions(callbacks2);
+    }
+
+    @Test
+    public void attachTwice() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+
+        try {
+            loaderManager.init(0, TestLoader.<String>create(), null);
+            fail();
+        } catch (IllegalStateException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void attachTwiceAfterStart() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loaderManager.start();
+
+        try {
+            loaderManager.init(0, TestLoader.<String>create(), null);
+            fail();
+        } catch (IllegalStateException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void trimMemory_while_stopped_restarts_on_start() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), callbacks);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.stop();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_BACKGROUND);
+
+        assertFalse(loader.hasResult());
+        assertFalse(loader.isRunning());
+
+        loaderManager.start();
+
+        assertTrue(loader.isRunning());
+        verify(callbacks, times(2)).onLoaderStart();
+    }
+
+    @Test
+    public void trimMemory_while_started_keeps_result() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_COMPLETE);
+
+        assertTrue(loader.hasResult());
+    }
+
+    @Test
+    public void trimMemory_keeps_running_loader() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loaderManager.stop();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_COMPLETE);
+
+        assertTrue(loader.hasResult());
+        assertFalse(loader.isCanceled());
+    }
+
+    @Test
+    public void trimMemory_ui_hidden_keeps_result() {
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.stop();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_UI_HIDDEN);
+
+        assertTrue(loader.hasResult());
+    }
+
+    @Test
+    public void trimMemory_uses_policy() {
+        final int[] trimLevel = new int[1];
+        loaderManager.setTrimPolicy(new LoaderManager.TrimPolicy() {
+            @Override
+            public boolean shouldTrim(Loader<?> loader, int level) {
+                trimLevel[0] = level;
+                return false;
+            }
+        });
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.stop();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(LoaderManager.TrimPolicy.TRIM_MEMORY_COMPLETE, trimLevel[0]);
+        assertTrue(loader.hasResult());
+    }
+
+    @Test
+    public void snapshot_restored_on_init() {
+        SnapshotStore store = new SnapshotStore(folder.getRoot(), SnapshotStoreTest.DIRECT);
+        loaderManager.setSnapshotStore(store);
+        TestLoader<String> loader = loaderManager.init(0, snapshotLoader(), null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.stop();
+        loaderManager.destroy();
+
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        LoaderManager newLoaderManager = new LoaderManager();
+        newLoaderManager.setSnapshotStore(store);
+        loader = newLoaderManager.init(0, snapshotLoader(), callbacks);
+        newLoaderManager.start();
+        loader.start();
+
+        assertTrue(loader.hasResult());
+        assertTrue(loader.isRunning());
+        verify(callbacks).onLoaderResult("test");
+        verify(callbacks).onLoaderStart();
+
+        loader.result("new");
+
+        verify(callbacks).onLoaderResult("new");
+    }
+
+    @Test
+    public void snapshot_deleted_on_remove() {
+        SnapshotStore store = new SnapshotStore(folder.getRoot(), SnapshotStoreTest.DIRECT);
+        loaderManager.setSnapshotStore(store);
+        TestLoader<String> loader = loaderManager.init(0, snapshotLoader(), null);
+        loader.start();
+        loader.result("test");
+        loader.success();
+        loaderManager.stop();
+        loaderManager.remove(0);
+
+        assertNull(store.read(0, SnapshotStoreTest.STRING_ADAPTER));
+    }
+
+    @Test
+    public void snapshot_write_failure_does_not_throw_from_stop() {
+        SnapshotStore store = new SnapshotStore(folder.getRoot(), SnapshotStoreTest.DIRECT);
+        loaderManager.setSnapshotStore(store);
+        TestLoader<String> loader = loaderManager.init(0, new Loader.Create<TestLoader<String>>() {
+            @Override
+            public TestLoader<String> create() {
+                TestLoader<String> loader = new TestLoader<>();
+                loader.setSnapshotAdapter(SnapshotStoreTest.FAILING_ADAPTER);
+                return loader;
+            }
+        }, null);
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loaderManager.stop();
+
+        assertTrue(loader.hasResult());
+        assertNull(store.read(0, SnapshotStoreTest.STRING_ADAPTER));
+    }
+
+    @Test
+    public void deliveryScheduler_set_on_created_loaders() {
+        loaderManager = new LoaderManager(DeliverySchedulers.immediate());
+        TestLoader<String> loader = loaderManager.init(0, TestLoader.<String>create(), null);
+
+        assertSame(DeliverySchedulers.immediate(), loader.getDeliveryScheduler());
+    }
+
+    static Loader.Create<TestLoader<String>> snapshotLoader() {
+        return new Loader.Create<TestLoader<String>>() {
+            @Override
+            public TestLoader<String> create() {
+                TestLoader<String> loader = new TestLoader<>();
+                loader.setSnapshotAdapter(SnapshotStoreTest.STRING_ADAPTER);
+                return loader;
+            }
+        };
+    }
+}
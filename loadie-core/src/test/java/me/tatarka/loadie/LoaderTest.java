@@ -3,28 +3,29 @@ package me.tatarka.loadie;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
-import org.robolectric.RobolectricTestRunner;
-import org.robolectric.annotation.Config;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
-@RunWith(RobolectricTestRunner.class)
-@Config(constants = BuildConfig.class, sdk = 21)
+@RunWith(JUnit4.class)
 public class LoaderTest {
 
     @Spy
     TestLoader<String> loader;
+    DeliverySchedulersTest.QueueExecutor executor = new DeliverySchedulersTest.QueueExecutor();
 
     @Before
     public void setup() {
@@ -328,4 +329,151 @@ public class LoaderTest {
 
         assertTrue(loader.isCanceled());
     }
+
+    @Test
+    public void synchronousResultIsPosted() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SynchronousLoader loader = new SynchronousLoader();
+        loader.setCallbacks(callbacks);
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verify(callbacks).onLoaderResult(eq("test"));
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void cancelDropsPostedResult() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SynchronousLoader loader = new SynchronousLoader();
+        loader.setCallbacks(callbacks);
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.start();
+        loader.cancel();
+        executor.runAll();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void setCallbacksDropsPostedResult() {
+        Loader.Callbacks<String> callbacks1 = mock(Loader.Callbacks.class);
+        Loader.Callbacks<String> callbacks2 = mock(Loader.Callbacks.class);
+        SynchronousLoader loader = new SynchronousLoader();
+        loader.setCallbacks(callbacks1);
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.start();
+        loader.setCallbacks(callbacks2);
+        executor.runAll();
+
+        verify(callbacks1).onLoaderStart();
+        verifyNoMoreInteractions(callbacks1);
+        verify(callbacks2).onLoaderResult(eq("test"));
+        verify(callbacks2).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks2);
+    }
+
+    @Test
+    public void directResultDeliversPostedResultFirst() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        CachedLoader loader = new CachedLoader();
+        loader.setCallbacks(callbacks);
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.start();
+        loader.receiver.result("fresh");
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderStart();
+        inOrder.verify(callbacks).onLoaderResult(eq("cached"));
+        inOrder.verify(callbacks).onLoaderResult(eq("fresh"));
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void conflatedResultsDeliverLatestOnFrame() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.result("test1");
+        loader.result("test2");
+        loader.result("test3");
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verify(callbacks).onLoaderResult(eq("test3"));
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void conflatedResultIsDeliveredBeforeSuccess() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.result("test");
+        loader.success();
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderStart();
+        inOrder.verify(callbacks).onLoaderResult(eq("test"));
+        inOrder.verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void cancelDropsConflatedResult() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.result("test");
+        loader.cancel();
+        executor.runAll();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    static class SynchronousLoader extends Loader<String> {
+        @Override
+        protected void onStart(Receiver receiver) {
+            receiver.success("test");
+        }
+    }
+
+    static class CachedLoader extends Loader<String> {
+        @Override
+        protected void onStart(Receiver receiver) {
+            receiver.result("cached");
+        }
+    }
 }
@@ -0,0 +1,128 @@
+package me.tatarka.loadie;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JUnit4.class)
+public class LoaderTracingTest {
+
+    RecordingTracer tracer;
+    LoaderManager loaderManager;
+
+    @Before
+    public void setup() {
+        tracer = new RecordingTracer();
+        LoaderTracing.setTracer(tracer);
+        loaderManager = new LoaderManager();
+    }
+
+    @After
+    public void teardown() {
+        LoaderTracing.setTracer(null);
+    }
+
+    @Test
+    public void tracesStartResultAndSuccess() {
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), new Loader.CallbacksAdapter<String>() {
+        });
+        loaderManager.start();
+        loader.start();
+        loader.result("test");
+        loader.success();
+
+        assertEquals(6, tracer.events.size());
+        int cookie = tracer.cookies.get(0);
+        assertEquals("beginAsync TestLoader#1 " + cookie, tracer.events.get(0));
+        assertEquals("begin TestLoader#1 onStart", tracer.events.get(1));
+        assertEquals("end", tracer.events.get(2));
+        assertEquals("begin TestLoader#1 onLoaderResult", tracer.events.get(3));
+        assertEquals("end", tracer.events.get(4));
+        assertEquals("endAsync TestLoader#1 " + cookie, tracer.events.get(5));
+    }
+
+    @Test
+    public void endsAsyncSectionOnError() {
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), null);
+        loader.start();
+        loader.error(new Throwable());
+
+        int cookie = tracer.cookies.get(0);
+        assertEquals("endAsync TestLoader#1 " + cookie, tracer.events.get(tracer.events.size() - 1));
+    }
+
+    @Test
+    public void endsAsyncSectionOnCancelWithNewCookieOnRestart() {
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), null);
+        loader.start();
+        loader.restart();
+
+        int first = tracer.cookies.get(0);
+        int second = tracer.cookies.get(1);
+        assertEquals("endAsync TestLoader#1 " + first, tracer.events.get(3));
+        assertEquals("beginAsync TestLoader#1 " + second, tracer.events.get(4));
+        assertEquals(false, first == second);
+    }
+
+    @Test
+    public void endsAsyncSectionOnlyOnce() {
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), null);
+        loader.start();
+        loader.success();
+        loader.cancel();
+
+        assertEquals(4, tracer.events.size());
+    }
+
+    @Test
+    public void beginSectionReturnsNullWhenDisabled() {
+        LoaderTracing.setTracer(null);
+        TestLoader<String> loader = loaderManager.init(1, TestLoader.<String>create(), null);
+
+        assertNull(LoaderTracing.beginSection(loader, "doInBackground"));
+    }
+
+    @Test
+    public void beginSectionNamesMethod() {
+        TestLoader<String> loader = loaderManager.init(2, TestLoader.<String>create(), null);
+        LoaderTracer result = LoaderTracing.beginSection(loader, "doInBackground");
+        result.endSection();
+
+        assertEquals("begin TestLoader#2 doInBackground", tracer.events.get(0));
+        assertEquals("end", tracer.events.get(1));
+    }
+
+    static class RecordingTracer implements LoaderTracer {
+        final List<String> events = new ArrayList<>();
+        final List<Integer> cookies = new ArrayList<>();
+
+        @Override
+        public void beginSection(String name) {
+            events.add("begin " + name);
+        }
+
+        @Override
+        public void endSection() {
+            events.add("end");
+        }
+
+        @Override
+        public void beginAsyncSection(String name, int cookie) {
+            cookies.add(cookie);
+            events.add("beginAsync " + name + " " + cookie);
+        }
+
+        @Override
+        public void endAsyncSection(String name, int cookie) {
+            events.add("endAsync " + name + " " + cookie);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Tests {@link IntLoader}, {@link LongLoader} and {@link DoubleLoader}, which only differ in the
+ * type they deliver.
+ */
+@RunWith(Parameterized.class)
+@SuppressWarnings("unchecked")
+public class PrimitiveLoaderTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Type> types() {
+        return Arrays.asList(INT, LONG, DOUBLE);
+    }
+
+    final Type type;
+    Loader loader;
+    DeliverySchedulersTest.QueueExecutor executor = new DeliverySchedulersTest.QueueExecutor();
+
+    public PrimitiveLoaderTest(Type type) {
+        this.type = type;
+    }
+
+    @Before
+    public void setup() {
+        loader = type.newLoader();
+    }
+
+    @Test
+    public void deliverResultHasResult() {
+        loader.start();
+        type.result(type.receiver(loader));
+
+        assertTrue(loader.isRunning());
+        assertTrue(loader.hasResult());
+    }
+
+    @Test
+    public void deliverResultCallsPrimitiveCallbacks() {
+        Loader.Callbacks callbacks = mock(type.callbacksClass);
+        loader.setCallbacks(callbacks);
+        loader.start();
+        type.result(type.receiver(loader));
+
+        verify(callbacks).onLoaderStart();
+        type.verifyResult(callbacks);
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void deliverResultCallsBoxedCallbacks() {
+        Loader.Callbacks callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+        type.result(type.receiver(loader));
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult(eq(type.boxedResult));
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void deliveredResultCallsCallbacksOnLoaderResult() {
+        Loader.Callbacks callbacks = mock(type.callbacksClass);
+        loader.start();
+        type.success(type.receiver(loader));
+        loader.setCallbacks(callbacks);
+
+        type.verifyResult(callbacks);
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void synchronousResultIsPosted() {
+        Loader.Callbacks callbacks = mock(type.callbacksClass);
+        Loader loader = type.newSynchronousLoader();
+        loader.setCallbacks(callbacks);
+
+        loader.setDeliveryScheduler(DeliverySchedulers.from(executor));
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        executor.runAll();
+
+        type.verifyResult(callbacks);
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void deliverResultAfterCancel() {
+        Loader.Callbacks callbacks = mock(type.callbacksClass);
+        loader.setCallbacks(callbacks);
+        loader.start();
+        Object receiver = type.receiver(loader);
+        loader.cancel();
+        type.result(receiver);
+
+        assertFalse(loader.hasResult());
+        type.verifyNoResult(callbacks);
+    }
+
+    /**
+     * One of the primitive loaders, delivering 1 of it's type.
+     */
+    static abstract class Type {
+        final String name;
+        final Object boxedResult;
+        final Class<? extends Loader.Callbacks> callbacksClass;
+
+        Type(String name, Object boxedResult, Class<? extends Loader.Callbacks> callbacksClass) {
+            this.name = name;
+            this.boxedResult = boxedResult;
+            this.callbacksClass = callbacksClass;
+        }
+
+        /**
+         * Returns a loader that keeps the receiver it's started with.
+         */
+        abstract Loader newLoader();
+
+        /**
+         * Returns a loader that succeeds with the result in {@link Loader#onStart(Loader.Receiver)}.
+         */
+        abstract Loader newSynchronousLoader();
+
+        abstract Object receiver(Loader loader);
+
+        abstract void result(Object receiver);
+
+        abstract void success(Object receiver);
+
+        abstract void verifyResult(Loader.Callbacks callbacks);
+
+        abstract void verifyNoResult(Loader.Callbacks callbacks);
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final Type INT = new Type("int", 1, IntLoader.IntCallbacks.class) {
+        @Override
+        Loader newLoader() {
+            return new TestIntLoader();
+        }
+
+        @Override
+        Loader newSynchronousLoader() {
+            return new IntLoader() {
+                @Override
+                protected void onStart(IntReceiver receiver) {
+                    receiver.success(1);
+                }
+            };
+        }
+
+        @Override
+        Object receiver(Loader loader) {
+            return ((TestIntLoader) loader).receiver;
+        }
+
+        @Override
+        void result(Object receiver) {
+            ((IntLoader.IntReceiver) receiver).result(1);
+        }
+
+        @Override
+        void success(Object receiver) {
+            ((IntLoader.IntReceiver) receiver).success(1);
+        }
+
+        @Override
+        void verifyResult(Loader.Callbacks callbacks) {
+            verify((IntLoader.IntCallbacks) callbacks).onLoaderResult(eq(1));
+        }
+
+        @Override
+        void verifyNoResult(Loader.Callbacks callbacks) {
+            verify((IntLoader.IntCallbacks) callbacks, never()).onLoaderResult(anyInt());
+        }
+    };
+
+    static final Type LONG = new Type("long", 1L, LongLoader.LongCallbacks.class) {
+        @Override
+        Loader newLoader() {
+            return new TestLongLoader();
+        }
+
+        @Override
+        Loader newSynchronousLoader() {
+            return new LongLoader() {
+                @Override
+                protected void onStart(LongReceiver receiver) {
+                    receiver.success(1L);
+                }
+            };
+        }
+
+        @Override
+        Object receiver(Loader loader) {
+            return ((TestLongLoader) loader).receiver;
+        }
+
+        @Override
+        void result(Object receiver) {
+            ((LongLoader.LongReceiver) receiver).result(1L);
+        }
+
+        @Override
+        void success(Object receiver) {
+            ((LongLoader.LongReceiver) receiver).success(1L);
+        }
+
+        @Override
+        void verifyResult(Loader.Callbacks callbacks) {
+            verify((LongLoader.LongCallbacks) callbacks).onLoaderResult(eq(1L));
+        }
+
+        @Override
+        void verifyNoResult(Loader.Callbacks callbacks) {
+            verify((LongLoader.LongCallbacks) callbacks, never()).onLoaderResult(anyLong());
+        }
+    };
+
+    static final Type DOUBLE = new Type("double", 1.0, DoubleLoader.DoubleCallbacks.class) {
+        @Override
+        Loader newLoader() {
+            return new TestDoubleLoader();
+        }
+
+        @Override
+        Loader newSynchronousLoader() {
+            return new DoubleLoader() {
+                @Override
+                protected void onStart(DoubleReceiver receiver) {
+                    receiver.success(1.0);
+                }
+            };
+        }
+
+        @Override
+        Object receiver(Loader loader) {
+            return ((TestDoubleLoader) loader).receiver;
+        }
+
+        @Override
+        void result(Object receiver) {
+            ((DoubleLoader.DoubleReceiver) receiver).result(1.0);
+        }
+
+        @Override
+        void success(Object receiver) {
+            ((DoubleLoader.DoubleReceiver) receiver).success(1.0);
+        }
+
+        @Override
+        void verifyResult(Loader.Callbacks callbacks) {
+            verify((DoubleLoader.DoubleCallbacks) callbacks).onLoaderResult(eq(1.0));
+        }
+
+        @Override
+        void verifyNoResult(Loader.Callbacks callbacks) {
+            verify((DoubleLoader.DoubleCallbacks) callbacks, never()).onLoaderResult(anyDouble());
+        }
+    };
+
+    static class TestIntLoader extends IntLoader {
+        IntReceiver receiver;
+
+        @Override
+        protected void onStart(IntReceiver receiver) {
+            this.receiver = receiver;
+        }
+    }
+
+    static class TestLongLoader extends LongLoader {
+        LongReceiver receiver;
+
+        @Override
+        protected void onStart(LongReceiver receiver) {
+            this.receiver = receiver;
+        }
+    }
+
+    static class TestDoubleLoader extends DoubleLoader {
+        DoubleReceiver receiver;
+
+        @Override
+        protected void onStart(DoubleReceiver receiver) {
+            this.receiver = receiver;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(JUnit4.class)
+public class SharedLoaderTest {
+
+    Object key;
+    TestSharedLoader loader1;
+    TestSharedLoader loader2;
+    Loader.Callbacks<String> callbacks1;
+    Loader.Callbacks<String> callbacks2;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        key = new Object();
+        loader1 = new TestSharedLoader(key);
+        loader2 = new TestSharedLoader(key);
+        callbacks1 = mock(Loader.Callbacks.class);
+        callbacks2 = mock(Loader.Callbacks.class);
+        loader1.setCallbacks(callbacks1);
+        loader2.setCallbacks(callbacks2);
+    }
+
+    @Test
+    public void sameKeySharesWork() {
+        loader1.start();
+        loader2.start();
+
+        assertEquals(1, loader1.startCount);
+        assertEquals(0, loader2.startCount);
+        assertEquals(2, SharedLoader.sharedCount(key));
+    }
+
+    @Test
+    public void differentKeysDontShareWork() {
+        TestSharedLoader other = new TestSharedLoader(new Object());
+        loader1.start();
+        other.start();
+
+        assertEquals(1, loader1.startCount);
+        assertEquals(1, other.startCount);
+    }
+
+    @Test
+    public void resultsDeliveredToAll() {
+        loader1.start();
+        loader2.start();
+        loader1.receiver.result("test");
+        loader1.receiver.success();
+
+        verify(callbacks1).onLoaderResult("test");
+        verify(callbacks1).onLoaderSuccess();
+        verify(callbacks2).onLoaderResult("test");
+        verify(callbacks2).onLoaderSuccess();
+        assertEquals(0, SharedLoader.sharedCount(key));
+    }
+
+    @Test
+    public void errorDeliveredToAll() {
+        Throwable error = new Throwable();
+        loader1.start();
+        loader2.start();
+        loader1.receiver.error(error);
+
+        verify(callbacks1).onLoaderError(error);
+        verify(callbacks2).onLoaderError(error);
+        assertEquals(0, SharedLoader.sharedCount(key));
+    }
+
+    @Test
+    public void lateJoinReceivesLatestResult() {
+        loader1.start();
+        loader1.receiver.result("test");
+        loader2.start();
+
+        assertTrue(loader2.hasResult());
+        assertTrue(loader2.isRunning());
+    }
+
+    @Test
+    public void cancelOneKeepsWorkRunning() {
+        loader1.start();
+        loader2.start();
+        loader1.cancel();
+        loader1.receiver.result("test");
+
+        assertFalse(loader1.canceled);
+        assertEquals(1, SharedLoader.sharedCount(key));
+        verify(callbacks2).onLoaderResult("test");
+        assertFalse(loader1.hasResult());
+    }
+
+    @Test
+    public void cancelAllCancelsWork() {
+        loader1.start();
+        loader2.start();
+        loader2.cancel();
+        loader1.cancel();
+
+        assertTrue(loader1.canceled);
+        assertEquals(0, SharedLoader.sharedCount(key));
+    }
+
+    @Test
+    public void startAfterSuccessRunsAgain() {
+        loader1.start();
+        loader1.receiver.success("test");
+        loader2.start();
+
+        assertEquals(1, loader1.startCount);
+        assertEquals(1, loader2.startCount);
+    }
+
+    static class TestSharedLoader extends SharedLoader<String> {
+        int startCount;
+        boolean canceled;
+        SharedReceiver<String> receiver;
+
+        TestSharedLoader(Object key) {
+            super(key);
+        }
+
+        @Override
+        protected void onStartShared(SharedReceiver<String> receiver) {
+            this.receiver = receiver;
+            startCount++;
+        }
+
+        @Override
+        protected void onCancelShared() {
+            canceled = true;
+        }
+    }
+}
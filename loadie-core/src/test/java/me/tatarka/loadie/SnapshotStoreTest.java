@@ -0,0 +1,159 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JUnit4.class)
+public class SnapshotStoreTest {
+
+    static final Loader.SnapshotAdapter<String> STRING_ADAPTER = new Loader.SnapshotAdapter<String>() {
+        @Override
+        public void write(String result, DataOutput out) throws IOException {
+            byte[] bytes = result.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer in) throws IOException {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            return new String(bytes, "UTF-8");
+        }
+    };
+
+    static final Loader.SnapshotAdapter<String> FAILING_ADAPTER = new Loader.SnapshotAdapter<String>() {
+        @Override
+        public void write(String result, DataOutput out) throws IOException {
+            throw new IOException("test");
+        }
+
+        @Override
+        public String read(ByteBuffer in) throws IOException {
+            throw new IOException("test");
+        }
+    };
+
+    static final Loader.SnapshotAdapter<String> THROWING_ADAPTER = new Loader.SnapshotAdapter<String>() {
+        @Override
+        public void write(String result, DataOutput out) throws IOException {
+            out.writeInt(-1);
+        }
+
+        @Override
+        public String read(ByteBuffer in) throws IOException {
+            // A bad length throws a runtime exception instead of an IOException.
+            return new String(new byte[in.getInt()], "UTF-8");
+        }
+    };
+
+    static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    File dir;
+    SnapshotStore store;
+
+    @Before
+    public void setup() {
+        dir = new File(folder.getRoot(), "snapshots");
+        store = new SnapshotStore(dir, DIRECT);
+    }
+
+    @Test
+    public void read_missing() {
+        assertNull(store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void write_and_read() {
+        store.write(0, "test", STRING_ADAPTER);
+
+        assertEquals("test", store.read(0, STRING_ADAPTER));
+        assertNull(store.read(1, STRING_ADAPTER));
+    }
+
+    @Test
+    public void write_replaces() {
+        store.write(0, "test1", STRING_ADAPTER);
+        store.write(0, "test2", STRING_ADAPTER);
+
+        assertEquals("test2", store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void delete() {
+        store.write(0, "test", STRING_ADAPTER);
+        store.delete(0);
+
+        assertNull(store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void clear() {
+        store.write(0, "test1", STRING_ADAPTER);
+        store.write(1, "test2", STRING_ADAPTER);
+        store.clear();
+
+        assertNull(store.read(0, STRING_ADAPTER));
+        assertNull(store.read(1, STRING_ADAPTER));
+    }
+
+    @Test
+    public void write_failure_deletes_snapshot() {
+        store.write(0, "test", STRING_ADAPTER);
+        store.write(0, "test", FAILING_ADAPTER);
+
+        assertNull(store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void read_corrupt() throws IOException {
+        dir.mkdirs();
+        FileOutputStream out = new FileOutputStream(new File(dir, "loader-0"));
+        out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        out.close();
+
+        assertNull(store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void read_truncated() throws IOException {
+        store.write(0, "test", STRING_ADAPTER);
+        RandomAccessFile file = new RandomAccessFile(new File(dir, "loader-0"), "rw");
+        file.setLength(file.length() - 1);
+        file.close();
+
+        assertNull(store.read(0, STRING_ADAPTER));
+    }
+
+    @Test
+    public void read_adapter_throws_deletes_snapshot() {
+        store.write(0, "test", THROWING_ADAPTER);
+
+        assertNull(store.read(0, THROWING_ADAPTER));
+        assertFalse(new File(dir, "loader-0").exists());
+    }
+}
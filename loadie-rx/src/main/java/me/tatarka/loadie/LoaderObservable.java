@@ -0,0 +1,173 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.MainThread;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.android.MainThreadSubscription;
+
+/**
+ * Exposes a {@link Loader} as an rxjava {@link Observable}, so any number of observers can share
+ * one load instead of each starting their own.
+ */
+public final class LoaderObservable {
+
+    private LoaderObservable() {
+    }
+
+    /**
+     * Returns a hot observable of the results of the loader with the given id. The loader is
+     * initialized in the loader manager with {@code create} and started when the first observer
+     * subscribes, every observer after that shares it. Observers that subscribe late get the latest
+     * result replayed, followed by completion or the error if the loader has finished. If the
+     * loader is restarted, observers that subscribe after get the new load.
+     * <p>
+     * The observers are reference counted. When the last one unsubscribes or the loader finishes
+     * the observable detaches from the loader, as if the loader manager was stopped, and the next
+     * observer attaches again and gets whatever the loader has by then. The loader itself is
+     * retained with the loader manager, so a new observable for the same id after a configuration
+     * change picks up the same load, and it's only destroyed when the loader manager removes or
+     * destroys it. The observable takes the loader's callbacks while it has observers, so only
+     * create one per id and share it. This must be subscribed to and unsubscribed from on the main
+     * thread, results are delivered there.
+     */
+    public static <T> Observable<T> from(LoaderManager loaderManager, int id, Loader.Create<? extends Loader<T>> create) {
+        return Observable.create(new Shared<>(loaderManager, id, create));
+    }
+
+    /**
+     * The loader's callbacks while there are subscribers, multicasts them to every subscriber and
+     * keeps the latest result to replay. The subscribers are copied on subscribe and unsubscribe
+     * instead of on every result, so they can unsubscribe while being delivered to.
+     */
+    private static final class Shared<T> implements Observable.OnSubscribe<T>, Loader.Callbacks<T> {
+        private static final Subscriber<?>[] EMPTY = new Subscriber<?>[0];
+
+        private final LoaderManager loaderManager;
+        private final int id;
+        private final Loader.Create<? extends Loader<T>> create;
+        @SuppressWarnings("unchecked")
+        private Subscriber<? super T>[] subscribers = (Subscriber<? super T>[]) EMPTY;
+        private Loader<T> loader;
+        private T latest;
+        private boolean hasLatest;
+
+        Shared(LoaderManager loaderManager, int id, Loader.Create<? extends Loader<T>> create) {
+            this.loaderManager = loaderManager;
+            this.id = id;
+            this.create = create;
+        }
+
+        @Override
+        @MainThread
+        public void call(final Subscriber<? super T> subscriber) {
+            MainThreadSubscription.verifyMainThread();
+            add(subscriber);
+            subscriber.add(new MainThreadSubscription() {
+                @Override
+                protected void onUnsubscribe() {
+                    if (remove(subscriber) && subscribers.length == 0) {
+                        detach();
+                    }
+                }
+            });
+            if (subscribers.length == 1) {
+                attach();
+            } else if (hasLatest) {
+                subscriber.onNext(latest);
+            }
+        }
+
+        /**
+         * Attaches to the loader for the first subscriber. Attaching delivers anything the loader
+         * already has, which may finish the load, so the result kept from before is dropped.
+         */
+        private void attach() {
+            latest = null;
+            hasLatest = false;
+            if (loader == null || loader.isDestroyed()) {
+                loader = loaderManager.init(id, create, this);
+                loader.start();
+            } else {
+                loaderManager.setCallbacks(id, this);
+            }
+        }
+
+        /**
+         * Detaches from the loader once there are no subscribers left, it keeps running in the
+         * loader manager.
+         */
+        private void detach() {
+            if (loader != null && !loader.isDestroyed()) {
+                loaderManager.setCallbacks(id, null);
+            }
+        }
+
+        @Override
+        public void onLoaderStart() {
+            latest = null;
+            hasLatest = false;
+        }
+
+        @Override
+        public void onLoaderResult(T result) {
+            latest = result;
+            hasLatest = true;
+            for (Subscriber<? super T> subscriber : subscribers) {
+                subscriber.onNext(result);
+            }
+        }
+
+        @Override
+        public void onLoaderError(Throwable error) {
+            Subscriber<? super T>[] subscribers = clear();
+            detach();
+            for (Subscriber<? super T> subscriber : subscribers) {
+                subscriber.onError(error);
+            }
+        }
+
+        @Override
+        public void onLoaderSuccess() {
+            Subscriber<? super T>[] subscribers = clear();
+            detach();
+            for (Subscriber<? super T> subscriber : subscribers) {
+                subscriber.onCompleted();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void add(Subscriber<? super T> subscriber) {
+            Subscriber<? super T>[] old = subscribers;
+            Subscriber<? super T>[] subscribers = new Subscriber[old.length + 1];
+            System.arraycopy(old, 0, subscribers, 0, old.length);
+            subscribers[old.length] = subscriber;
+            this.subscribers = subscribers;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean remove(Subscriber<? super T> subscriber) {
+            Subscriber<? super T>[] old = subscribers;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == subscriber) {
+                    Subscriber<? super T>[] subscribers = new Subscriber[old.length - 1];
+                    System.arraycopy(old, 0, subscribers, 0, i);
+                    System.arraycopy(old, i + 1, subscribers, i, old.length - i - 1);
+                    this.subscribers = subscribers;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Removes all the subscribers, returning the ones there were.
+         */
+        @SuppressWarnings("unchecked")
+        private Subscriber<? super T>[] clear() {
+            Subscriber<? super T>[] old = subscribers;
+            subscribers = (Subscriber<? super T>[]) EMPTY;
+            return old;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package me.tatarka.loadie;
 
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+
 import rx.Observable;
 import rx.Observer;
 import rx.Scheduler;
+import rx.Subscriber;
 import rx.Subscription;
 import rx.android.schedulers.AndroidSchedulers;
+import rx.functions.Action0;
 import rx.functions.Func0;
+import rx.subscriptions.CompositeSubscription;
 
 /**
- * A {@link Loader} that wraps an rxjava {@link Observable}.
+ * A {@link Loader} that wraps an rxjava {@link Observable}. Results are delivered on the main thread,
+ * pass a {@link DeliveryStrategy} to bound how many can be waiting for it.
  */
 public final class RxLoader<T> extends Loader<T> {
 
+    private static final Object NULL = new Object();
+
     /**
      * Returns a new {@code RxLoader} creator with the given observable to give to the {@link
      * LoaderManager}. The given observable must be cold since it's not expected to run until
@@ -29,15 +39,45 @@ public final class RxLoader<T> extends Loader<T> {
         };
     }
 
+    /**
+     * Returns a new {@code RxLoader} creator like {@link #create(Observable)}, that delivers
+     * results to the main thread with the given strategy instead of buffering all of them. Use
+     * this when the observable can emit faster than the main thread handles results.
+     */
+    public static <T> Create<RxLoader<T>> create(final Observable<T> observable, final DeliveryStrategy strategy) {
+        return new Create<RxLoader<T>>() {
+            @Override
+            public RxLoader<T> create() {
+                return new RxLoader<>(observable, strategy);
+            }
+        };
+    }
+
     private final rx.Observable<T> observable;
+    @Nullable
+    private final DeliveryStrategy strategy;
     private Subscription subscription;
 
     public RxLoader(rx.Observable<T> observable) {
+        this(observable, null);
+    }
+
+    public RxLoader(rx.Observable<T> observable, @Nullable DeliveryStrategy strategy) {
         this.observable = observable;
+        this.strategy = strategy;
+        if (strategy != null && strategy.perFrame) {
+            setConflateResults(true);
+        }
     }
 
     @Override
     protected void onStart(final Receiver receiver) {
+        if (strategy != null) {
+            BoundedSubscriber subscriber = new BoundedSubscriber(receiver, strategy.capacity);
+            // The drain outlives the subscriber, which is unsubscribed as soon as it completes.
+            subscription = new CompositeSubscription(subscriber.worker, observable.subscribe(subscriber));
+            return;
+        }
         subscription = observable
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(new Observer<T>() {
@@ -63,4 +103,140 @@ public final class RxLoader<T> extends Loader<T> {
         subscription.unsubscribe();
         subscription = null;
     }
+
+    /**
+     * How an {@link RxLoader} delivers results to the main thread. By default every result is
+     * buffered until the main thread gets to it, the strategies here bound how many are waiting.
+     * Results that are dropped are never delivered, errors and completion always are.
+     */
+    public static final class DeliveryStrategy {
+
+        private static final DeliveryStrategy LATEST = new DeliveryStrategy(1, false);
+        private static final DeliveryStrategy SAMPLE_PER_FRAME = new DeliveryStrategy(1, true);
+
+        /**
+         * Only the latest result waits to be delivered, it replaces any that hasn't been yet.
+         */
+        public static DeliveryStrategy latest() {
+            return LATEST;
+        }
+
+        /**
+         * Up to the given number of results wait to be delivered, when full the oldest is dropped
+         * to make room for the newest.
+         */
+        public static DeliveryStrategy buffer(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be > 0, got: " + capacity);
+            }
+            return new DeliveryStrategy(capacity, false);
+        }
+
+        /**
+         * Delivers the latest result at most once per frame, this sets {@link
+         * Loader#setConflateResults(boolean)} on the loader.
+         */
+        public static DeliveryStrategy samplePerFrame() {
+            return SAMPLE_PER_FRAME;
+        }
+
+        final int capacity;
+        final boolean perFrame;
+
+        private DeliveryStrategy(int capacity, boolean perFrame) {
+            this.capacity = capacity;
+            this.perFrame = perFrame;
+        }
+    }
+
+    /**
+     * Keeps at most {@code capacity} results from any thread and drains them on the main thread,
+     * posting only when there isn't a drain already pending.
+     */
+    private final class BoundedSubscriber extends Subscriber<T> implements Action0 {
+        private final Receiver receiver;
+        private final int capacity;
+        final Scheduler.Worker worker = AndroidSchedulers.mainThread().createWorker();
+        // Guarded by queue.
+        private final ArrayDeque<Object> queue;
+        private boolean scheduled;
+        private boolean done;
+        private Throwable error;
+
+        BoundedSubscriber(Receiver receiver, int capacity) {
+            this.receiver = receiver;
+            this.capacity = capacity;
+            this.queue = new ArrayDeque<>(Math.min(capacity, 16));
+        }
+
+        @Override
+        public void onNext(T value) {
+            synchronized (queue) {
+                if (queue.size() == capacity) {
+                    queue.poll();
+                }
+                // ArrayDeque doesn't allow nulls.
+                queue.offer(value != null ? value : NULL);
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (queue) {
+                error = e;
+                done = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (queue) {
+                done = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            boolean post;
+            synchronized (queue) {
+                post = !scheduled;
+                scheduled = true;
+            }
+            if (post) {
+                worker.schedule(this);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void call() {
+            while (!worker.isUnsubscribed()) {
+                Object value;
+                boolean done;
+                Throwable error;
+                synchronized (queue) {
+                    value = queue.poll();
+                    done = this.done;
+                    error = this.error;
+                    if (value == null) {
+                        scheduled = false;
+                    }
+                }
+                if (value != null) {
+                    receiver.result(value != NULL ? (T) value : null);
+                } else {
+                    if (done) {
+                        if (error != null) {
+                            receiver.error(error);
+                        } else {
+                            receiver.success();
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,200 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import rx.Observable;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class LoaderObservableTest {
+
+    LoaderManager loaderManager;
+    CountingLoader loader;
+    Loader.Create<CountingLoader> create = new Loader.Create<CountingLoader>() {
+        @Override
+        public CountingLoader create() {
+            loader = new CountingLoader();
+            return loader;
+        }
+    };
+
+    @Before
+    public void setup() {
+        loaderManager = new LoaderManager(DeliverySchedulers.immediate());
+        loaderManager.start();
+    }
+
+    @Test
+    public void subscribingStartsLoader() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        observable.subscribe(subscriber);
+
+        assertEquals(1, loader.startCount);
+        loader.receiver.result("test");
+
+        subscriber.assertValue("test");
+    }
+
+    @Test
+    public void subscribersShareOneLoad() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        TestSubscriber<String> first = new TestSubscriber<>();
+        TestSubscriber<String> second = new TestSubscriber<>();
+        observable.subscribe(first);
+        observable.subscribe(second);
+        loader.receiver.result("test");
+        loader.receiver.success();
+
+        assertEquals(1, loader.startCount);
+        first.assertValue("test");
+        first.assertCompleted();
+        second.assertValue("test");
+        second.assertCompleted();
+    }
+
+    @Test
+    public void unsubscribingWhileDeliveringStillDeliversToOthers() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        TestSubscriber<String> first = new TestSubscriber<String>() {
+            @Override
+            public void onNext(String value) {
+                super.onNext(value);
+                unsubscribe();
+            }
+        };
+        TestSubscriber<String> second = new TestSubscriber<>();
+        observable.subscribe(first);
+        observable.subscribe(second);
+        loader.receiver.result("1");
+        loader.receiver.result("2");
+
+        first.assertValue("1");
+        second.assertValues("1", "2");
+    }
+
+    @Test
+    public void lateSubscriberGetsLatestResult() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        observable.subscribe(new TestSubscriber<String>());
+        loader.receiver.result("1");
+        loader.receiver.result("2");
+        TestSubscriber<String> late = new TestSubscriber<>();
+        observable.subscribe(late);
+
+        late.assertValue("2");
+        late.assertNotCompleted();
+    }
+
+    @Test
+    public void lateSubscriberAfterErrorGetsError() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        observable.subscribe(new TestSubscriber<String>());
+        Exception error = new Exception();
+        loader.receiver.error(error);
+        TestSubscriber<String> late = new TestSubscriber<>();
+        observable.subscribe(late);
+
+        late.assertError(error);
+    }
+
+    @Test
+    public void finishingDetachesFromLoader() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        observable.subscribe(new TestSubscriber<String>());
+        loader.receiver.success();
+
+        assertFalse(loader.isAttached());
+    }
+
+    @Test
+    public void unsubscribingAllDetachesFromLoader() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        Subscription first = observable.subscribe(new TestSubscriber<String>());
+        Subscription second = observable.subscribe(new TestSubscriber<String>());
+        first.unsubscribe();
+
+        assertTrue(loader.isAttached());
+
+        second.unsubscribe();
+
+        assertFalse(loader.isAttached());
+        assertTrue(loader.isRunning());
+    }
+
+    @Test
+    public void resubscribingReattachesToRetainedLoad() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        Subscription subscription = observable.subscribe(new TestSubscriber<String>());
+        loader.receiver.result("1");
+        subscription.unsubscribe();
+        loader.receiver.result("2");
+        TestSubscriber<String> again = new TestSubscriber<>();
+        observable.subscribe(again);
+
+        assertEquals(1, loader.startCount);
+        assertTrue(loader.isAttached());
+        again.assertValue("2");
+    }
+
+    @Test
+    public void unsubscribingAllWhileStoppedStaysDetachedOnStart() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        Subscription subscription = observable.subscribe(new TestSubscriber<String>());
+        loaderManager.stop();
+        subscription.unsubscribe();
+        loaderManager.start();
+
+        assertFalse(loader.isAttached());
+    }
+
+    @Test
+    public void subscribingWhileStoppedAttachesOnStart() {
+        Observable<String> observable = LoaderObservable.from(loaderManager, 0, create);
+        observable.subscribe(new TestSubscriber<String>()).unsubscribe();
+        loader.receiver.result("test");
+        loaderManager.stop();
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        observable.subscribe(subscriber);
+
+        subscriber.assertNoValues();
+
+        loaderManager.start();
+
+        subscriber.assertValue("test");
+    }
+
+    @Test
+    public void newObservableAfterDetachSharesRetainedLoad() {
+        LoaderObservable.from(loaderManager, 0, create).subscribe(new TestSubscriber<String>());
+        loader.receiver.result("test");
+        loaderManager.detach();
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        LoaderObservable.from(loaderManager, 0, create).subscribe(subscriber);
+        loaderManager.start();
+
+        assertEquals(1, loader.startCount);
+        subscriber.assertValue("test");
+    }
+
+    static class CountingLoader extends Loader<String> {
+        Receiver receiver;
+        int startCount;
+
+        @Override
+        protected void onStart(Receiver receiver) {
+            this.receiver = receiver;
+            startCount++;
+        }
+    }
+}
@@ -3,16 +3,21 @@ package me.tatarka.loadie;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
 import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
 import rx.subjects.TestSubject;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith(RobolectricTestRunner.class)
 @Config(constants = BuildConfig.class, sdk = 21)
@@ -97,4 +102,71 @@ public class RxLoaderTest {
         verify(callbacks).onLoaderStart();
         verify(callbacks).onLoaderSuccess();
     }
+
+    @Test
+    public void latestDropsUndeliveredResults() {
+        PublishSubject<String> subject = PublishSubject.create();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        RxLoader<String> loader = new RxLoader<>(subject, RxLoader.DeliveryStrategy.latest());
+        loader.setCallbacks(callbacks);
+        Robolectric.getForegroundThreadScheduler().pause();
+        loader.start();
+        subject.onNext("1");
+        subject.onNext("2");
+        subject.onNext("3");
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult("3");
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void bufferDropsOldestAndCompletesAfterResults() {
+        PublishSubject<String> subject = PublishSubject.create();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        RxLoader<String> loader = new RxLoader<>(subject, RxLoader.DeliveryStrategy.buffer(2));
+        loader.setCallbacks(callbacks);
+        Robolectric.getForegroundThreadScheduler().pause();
+        loader.start();
+        subject.onNext("1");
+        subject.onNext("2");
+        subject.onNext("3");
+        subject.onCompleted();
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderStart();
+        inOrder.verify(callbacks).onLoaderResult("2");
+        inOrder.verify(callbacks).onLoaderResult("3");
+        inOrder.verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void canceledDropsUndeliveredResults() {
+        PublishSubject<String> subject = PublishSubject.create();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        RxLoader<String> loader = new RxLoader<>(subject, RxLoader.DeliveryStrategy.latest());
+        loader.setCallbacks(callbacks);
+        Robolectric.getForegroundThreadScheduler().pause();
+        loader.start();
+        subject.onNext("1");
+        loader.cancel();
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+        assertFalse(subject.hasObservers());
+    }
+
+    @Test
+    public void samplePerFrameConflatesResults() {
+        RxLoader<String> loader = new RxLoader<>(PublishSubject.<String>create(), RxLoader.DeliveryStrategy.samplePerFrame());
+
+        assertTrue(loader.isConflatingResults());
+    }
 }
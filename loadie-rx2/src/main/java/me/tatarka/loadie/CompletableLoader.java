@@ -0,0 +1,46 @@
+package me.tatarka.loadie;
+
+import io.reactivex.Completable;
+
+/**
+ * A {@link Loader} that wraps an rxjava {@link Completable}, it only delivers success or an error.
+ * Completion is handed straight to the loader's {@link DeliveryScheduler} without going through
+ * {@code observeOn()}'s queue.
+ */
+public final class CompletableLoader extends Loader<Void> {
+
+    /**
+     * Returns a new {@code CompletableLoader} creator with the given completable to give to the {@link
+     * LoaderManager}. The given completable must be cold since it's not expected to run until {@link
+     * #start()} is called. The loader will <em>not</em> change the scheduler that the completable is run
+     * with. For any heavy work you need to ensure it happens off the main thread (for example, with
+     * {@link Completable#subscribeOn(io.reactivex.Scheduler)}).
+     */
+    public static Create<CompletableLoader> create(final Completable completable) {
+        return new Create<CompletableLoader>() {
+            @Override
+            public CompletableLoader create() {
+                return new CompletableLoader(completable);
+            }
+        };
+    }
+
+    private final Completable completable;
+    private TerminalObserver<Void> observer;
+
+    public CompletableLoader(Completable completable) {
+        this.completable = completable;
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        observer = new TerminalObserver<>(this, receiver);
+        completable.subscribe(observer);
+    }
+
+    @Override
+    protected void onCancel() {
+        observer.dispose();
+        observer = null;
+    }
+}
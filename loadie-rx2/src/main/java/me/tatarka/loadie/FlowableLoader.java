@@ -0,0 +1,189 @@
+package me.tatarka.loadie;
+
+import java.util.ArrayDeque;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.subscribers.DisposableSubscriber;
+
+/**
+ * A {@link Loader} that wraps an rxjava {@link Flowable}. Results are requested in batches as the
+ * loader delivers them, so a fast flowable is slowed down to the rate results are handled
+ * instead of queueing them without bound.
+ */
+public final class FlowableLoader<T> extends Loader<T> {
+
+    /**
+     * Returns a new {@code FlowableLoader} creator with the given flowable to give to the {@link
+     * LoaderManager}. The given flowable must be cold since it's not expected to run until {@link
+     * #start()} is called. The loader will <em>not</em> change the scheduler that the flowable is
+     * run with. For any heavy work you need to ensure it happens off the main thread (for example,
+     * with {@link Flowable#subscribeOn(io.reactivex.Scheduler)}).
+     */
+    public static <T> Create<FlowableLoader<T>> create(Flowable<T> flowable) {
+        return create(flowable, Flowable.bufferSize());
+    }
+
+    /**
+     * Returns a new {@code FlowableLoader} creator like {@link #create(Flowable)}, that requests
+     * at most {@code batchSize} results ahead of what has been delivered.
+     */
+    public static <T> Create<FlowableLoader<T>> create(final Flowable<T> flowable, final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be > 0, got: " + batchSize);
+        }
+        return new Create<FlowableLoader<T>>() {
+            @Override
+            public FlowableLoader<T> create() {
+                return new FlowableLoader<>(flowable, batchSize);
+            }
+        };
+    }
+
+    private final Flowable<T> flowable;
+    private final int batchSize;
+    private BatchSubscriber subscriber;
+
+    public FlowableLoader(Flowable<T> flowable) {
+        this(flowable, Flowable.bufferSize());
+    }
+
+    public FlowableLoader(Flowable<T> flowable, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be > 0, got: " + batchSize);
+        }
+        this.flowable = flowable;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        subscriber = new BatchSubscriber(receiver, batchSize);
+        flowable.subscribe(subscriber);
+    }
+
+    @Override
+    protected void onCancel() {
+        // A drain that is already scheduled is dropped since it's no longer the loader's subscriber.
+        subscriber.dispose();
+        subscriber = null;
+    }
+
+    /**
+     * Requests a batch of results and drains them on the loader's {@link DeliveryScheduler},
+     * scheduling only when there isn't a drain already pending. Once three quarters of a batch has been delivered the same
+     * amount is requested again, so the flowable never has more than a batch waiting.
+     */
+    private final class BatchSubscriber extends DisposableSubscriber<T> implements DeliveryScheduler.Delivery {
+        private final Receiver receiver;
+        private final int batchSize;
+        private final int limit;
+        // Guarded by queue.
+        private final ArrayDeque<T> queue;
+        private boolean scheduled;
+        private boolean done;
+        private Throwable error;
+        // Only touched on the loader's thread.
+        private int consumed;
+
+        BatchSubscriber(Receiver receiver, int batchSize) {
+            this.receiver = receiver;
+            this.batchSize = batchSize;
+            this.limit = batchSize - (batchSize >> 2);
+            this.queue = new ArrayDeque<>(Math.min(batchSize, 16));
+        }
+
+        @Override
+        protected void onStart() {
+            request(batchSize);
+        }
+
+        @Override
+        public void onNext(T value) {
+            boolean overflow;
+            synchronized (queue) {
+                if (done) {
+                    return;
+                }
+                overflow = queue.size() == batchSize;
+                if (overflow) {
+                    // The flowable doesn't support backpressure, fail instead of growing forever.
+                    done = true;
+                    error = new MissingBackpressureException("Could not deliver value due to lack of requests");
+                } else {
+                    queue.offer(value);
+                }
+            }
+            if (overflow) {
+                dispose();
+            }
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (queue) {
+                if (done) {
+                    return;
+                }
+                error = e;
+                done = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (queue) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            boolean post;
+            synchronized (queue) {
+                post = !scheduled;
+                scheduled = true;
+            }
+            if (post) {
+                getDeliveryScheduler().schedule(this, 0);
+            }
+        }
+
+        @Override
+        public void deliver(int token) {
+            while (subscriber == this) {
+                T value;
+                boolean done;
+                Throwable error;
+                synchronized (queue) {
+                    value = queue.poll();
+                    done = this.done;
+                    error = this.error;
+                    if (value == null) {
+                        scheduled = false;
+                    }
+                }
+                if (value == null) {
+                    if (done) {
+                        if (error != null) {
+                            receiver.error(error);
+                        } else {
+                            receiver.success();
+                        }
+                    }
+                    return;
+                }
+                receiver.result(value);
+                if (++consumed == limit && subscriber == this) {
+                    consumed = 0;
+                    request(limit);
+                }
+            }
+        }
+    }
+}
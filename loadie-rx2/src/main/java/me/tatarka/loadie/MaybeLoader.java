@@ -0,0 +1,46 @@
+package me.tatarka.loadie;
+
+import io.reactivex.Maybe;
+
+/**
+ * A {@link Loader} that wraps an rxjava {@link Maybe}, it's value is delivered as the only result or
+ * there is no result if it completes empty. The value is handed straight to the loader's {@link
+ * DeliveryScheduler} without going through {@code observeOn()}'s queue.
+ */
+public final class MaybeLoader<T> extends Loader<T> {
+
+    /**
+     * Returns a new {@code MaybeLoader} creator with the given maybe to give to the {@link
+     * LoaderManager}. The given maybe must be cold since it's not expected to run until {@link
+     * #start()} is called. The loader will <em>not</em> change the scheduler that the maybe is run
+     * with. For any heavy work you need to ensure it happens off the main thread (for example, with
+     * {@link Maybe#subscribeOn(io.reactivex.Scheduler)}).
+     */
+    public static <T> Create<MaybeLoader<T>> create(final Maybe<T> maybe) {
+        return new Create<MaybeLoader<T>>() {
+            @Override
+            public MaybeLoader<T> create() {
+                return new MaybeLoader<>(maybe);
+            }
+        };
+    }
+
+    private final Maybe<T> maybe;
+    private TerminalObserver<T> observer;
+
+    public MaybeLoader(Maybe<T> maybe) {
+        this.maybe = maybe;
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        observer = new TerminalObserver<>(this, receiver);
+        maybe.subscribe(observer);
+    }
+
+    @Override
+    protected void onCancel() {
+        observer.dispose();
+        observer = null;
+    }
+}
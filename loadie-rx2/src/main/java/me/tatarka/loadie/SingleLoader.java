@@ -0,0 +1,46 @@
+package me.tatarka.loadie;
+
+import io.reactivex.Single;
+
+/**
+ * A {@link Loader} that wraps an rxjava {@link Single}, it's value is delivered as the only result.
+ * The value is handed straight to the loader's {@link DeliveryScheduler} without going through
+ * {@code observeOn()}'s queue.
+ */
+public final class SingleLoader<T> extends Loader<T> {
+
+    /**
+     * Returns a new {@code SingleLoader} creator with the given single to give to the {@link
+     * LoaderManager}. The given single must be cold since it's not expected to run until {@link
+     * #start()} is called. The loader will <em>not</em> change the scheduler that the single is run
+     * with. For any heavy work you need to ensure it happens off the main thread (for example, with
+     * {@link Single#subscribeOn(io.reactivex.Scheduler)}).
+     */
+    public static <T> Create<SingleLoader<T>> create(final Single<T> single) {
+        return new Create<SingleLoader<T>>() {
+            @Override
+            public SingleLoader<T> create() {
+                return new SingleLoader<>(single);
+            }
+        };
+    }
+
+    private final Single<T> single;
+    private TerminalObserver<T> observer;
+
+    public SingleLoader(Single<T> single) {
+        this.single = single;
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        observer = new TerminalObserver<>(this, receiver);
+        single.subscribe(observer);
+    }
+
+    @Override
+    protected void onCancel() {
+        observer.dispose();
+        observer = null;
+    }
+}
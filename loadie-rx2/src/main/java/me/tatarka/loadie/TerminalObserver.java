@@ -0,0 +1,87 @@
+package me.tatarka.loadie;
+
+import io.reactivex.CompletableObserver;
+import io.reactivex.MaybeObserver;
+import io.reactivex.SingleObserver;
+import io.reactivex.disposables.Disposable;
+
+/**
+ * Delivers the single terminal event of a {@code Single}, {@code Maybe} or {@code Completable} to a
+ * loader's receiver. There is at most one event, so instead of a queue it's kept in a field and the
+ * observer schedules itself on the loader's {@link DeliveryScheduler} with the event as the token.
+ */
+final class TerminalObserver<T> implements SingleObserver<T>, MaybeObserver<T>, CompletableObserver, DeliveryScheduler.Delivery {
+
+    private static final int SUCCESS = 1;
+    private static final int COMPLETE = 2;
+    private static final int ERROR = 3;
+
+    private final Loader<T> loader;
+    private final Loader<T>.Receiver receiver;
+    private volatile Disposable upstream;
+    private volatile boolean disposed;
+    // Only read on the loader's thread after being scheduled, which publishes them.
+    private T value;
+    private Throwable error;
+
+    TerminalObserver(Loader<T> loader, Loader<T>.Receiver receiver) {
+        this.loader = loader;
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void onSubscribe(Disposable d) {
+        upstream = d;
+        if (disposed) {
+            d.dispose();
+        }
+    }
+
+    @Override
+    public void onSuccess(T value) {
+        this.value = value;
+        loader.getDeliveryScheduler().schedule(this, SUCCESS);
+    }
+
+    @Override
+    public void onComplete() {
+        loader.getDeliveryScheduler().schedule(this, COMPLETE);
+    }
+
+    @Override
+    public void onError(Throwable e) {
+        this.error = e;
+        loader.getDeliveryScheduler().schedule(this, ERROR);
+    }
+
+    @Override
+    public void deliver(int token) {
+        // The scheduler never removes the delivery, it's dropped here once disposed.
+        if (disposed) {
+            return;
+        }
+        switch (token) {
+            case SUCCESS:
+                receiver.success(value);
+                break;
+            case COMPLETE:
+                receiver.success();
+                break;
+            case ERROR:
+                receiver.error(error);
+                break;
+        }
+    }
+
+    /**
+     * Disposes the upstream and drops the event if it hasn't been delivered. This must be called on
+     * the loader's thread.
+     */
+    void dispose() {
+        disposed = true;
+        Disposable d = upstream;
+        if (d != null) {
+            d.dispose();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package me.tatarka.loadie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import io.reactivex.Completable;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CompletableLoaderTest {
+
+    @Test
+    public void completeCallsCallback() {
+        Loader.Callbacks<Void> callbacks = mock(Loader.Callbacks.class);
+        CompletableLoader loader = new CompletableLoader(Completable.complete());
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void errorCallsCallback() {
+        Loader.Callbacks<Void> callbacks = mock(Loader.Callbacks.class);
+        Exception error = new Exception();
+        CompletableLoader loader = new CompletableLoader(Completable.error(error));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderError(error);
+    }
+}
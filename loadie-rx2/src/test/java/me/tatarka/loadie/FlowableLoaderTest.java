@@ -0,0 +1,141 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import io.reactivex.Flowable;
+import io.reactivex.functions.Function;
+import io.reactivex.functions.LongConsumer;
+import io.reactivex.processors.PublishProcessor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class FlowableLoaderTest {
+
+    @Test
+    public void startedSubscribes() {
+        PublishProcessor<String> processor = PublishProcessor.create();
+        FlowableLoader<String> loader = new FlowableLoader<>(processor);
+        loader.start();
+
+        assertTrue(processor.hasSubscribers());
+    }
+
+    @Test
+    public void canceledDisposes() {
+        PublishProcessor<String> processor = PublishProcessor.create();
+        FlowableLoader<String> loader = new FlowableLoader<>(processor);
+        loader.start();
+        loader.cancel();
+
+        assertFalse(processor.hasSubscribers());
+    }
+
+    @Test
+    public void requestsInBatches() {
+        final List<Long> requests = new ArrayList<>();
+        Flowable<String> flowable = Flowable.range(0, 10)
+                .doOnRequest(new LongConsumer() {
+                    @Override
+                    public void accept(long n) {
+                        requests.add(n);
+                    }
+                })
+                .map(new Function<Integer, String>() {
+                    @Override
+                    public String apply(Integer value) {
+                        return String.valueOf(value);
+                    }
+                });
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        FlowableLoader<String> loader = new FlowableLoader<>(flowable, 4);
+        loader.setCallbacks(callbacks);
+        Robolectric.getForegroundThreadScheduler().pause();
+        loader.start();
+
+        assertEquals(1, requests.size());
+        assertEquals(4L, (long) requests.get(0));
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+
+        verify(callbacks, times(10)).onLoaderResult(anyString());
+        verify(callbacks).onLoaderSuccess();
+        for (int i = 1; i < requests.size(); i++) {
+            assertEquals(3L, (long) requests.get(i));
+        }
+    }
+
+    @Test
+    public void errorIsDeliveredAfterResults() {
+        PublishProcessor<String> processor = PublishProcessor.create();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        Exception error = new Exception();
+        FlowableLoader<String> loader = new FlowableLoader<>(processor);
+        loader.setCallbacks(callbacks);
+        Robolectric.getForegroundThreadScheduler().pause();
+        loader.start();
+        processor.onNext("1");
+        processor.onNext("2");
+        processor.onError(error);
+
+        Robolectric.getForegroundThreadScheduler().unPause();
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderStart();
+        inOrder.verify(callbacks).onLoaderResult("1");
+        inOrder.verify(callbacks).onLoaderResult("2");
+        inOrder.verify(callbacks).onLoaderError(error);
+    }
+
+    @Test
+    public void resultsAreDeliveredThroughDeliveryScheduler() {
+        final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+        PublishProcessor<String> processor = PublishProcessor.create();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        FlowableLoader<String> loader = new FlowableLoader<>(processor);
+        loader.setDeliveryScheduler(DeliverySchedulers.from(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                deliveries.add(command);
+            }
+        }));
+        loader.setCallbacks(callbacks);
+        loader.start();
+        processor.onNext("1");
+        processor.onNext("2");
+        processor.onComplete();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+        // Only one drain is scheduled for all of them.
+        assertEquals(1, deliveries.size());
+
+        deliveries.poll().run();
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderResult("1");
+        inOrder.verify(callbacks).onLoaderResult("2");
+        inOrder.verify(callbacks).onLoaderSuccess();
+    }
+}
@@ -0,0 +1,41 @@
+package me.tatarka.loadie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import io.reactivex.Maybe;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class MaybeLoaderTest {
+
+    @Test
+    public void successCallsCallbacks() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        MaybeLoader<String> loader = new MaybeLoader<>(Maybe.just("test"));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult("test");
+        verify(callbacks).onLoaderSuccess();
+    }
+
+    @Test
+    public void emptyCompletesWithoutResult() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        MaybeLoader<String> loader = new MaybeLoader<>(Maybe.<String>empty());
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+}
@@ -0,0 +1,115 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import io.reactivex.Single;
+import io.reactivex.functions.Action;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class SingleLoaderTest {
+
+    @Test
+    public void successCallsCallbacks() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SingleLoader<String> loader = new SingleLoader<>(Single.just("test"));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult("test");
+        verify(callbacks).onLoaderSuccess();
+    }
+
+    @Test
+    public void errorCallsCallback() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        Exception error = new Exception();
+        SingleLoader<String> loader = new SingleLoader<>(Single.<String>error(error));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderError(error);
+    }
+
+    @Test
+    public void canceledDisposes() {
+        final boolean[] disposed = new boolean[1];
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SingleLoader<String> loader = new SingleLoader<>(Single.<String>never().doOnDispose(new Action() {
+            @Override
+            public void run() {
+                disposed[0] = true;
+            }
+        }));
+        loader.setCallbacks(callbacks);
+        loader.start();
+        loader.cancel();
+
+        assertTrue(disposed[0]);
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void valueIsDeliveredThroughDeliveryScheduler() {
+        final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SingleLoader<String> loader = new SingleLoader<>(Single.just("test"));
+        loader.setDeliveryScheduler(DeliverySchedulers.from(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                deliveries.add(command);
+            }
+        }));
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        while (!deliveries.isEmpty()) {
+            deliveries.poll().run();
+        }
+
+        verify(callbacks).onLoaderResult("test");
+        verify(callbacks).onLoaderSuccess();
+    }
+
+    @Test
+    public void canceledDropsScheduledValue() {
+        final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SingleLoader<String> loader = new SingleLoader<>(Single.just("test"));
+        loader.setDeliveryScheduler(DeliverySchedulers.from(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                deliveries.add(command);
+            }
+        }));
+        loader.setCallbacks(callbacks);
+        loader.start();
+        loader.cancel();
+
+        while (!deliveries.isEmpty()) {
+            deliveries.poll().run();
+        }
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+}
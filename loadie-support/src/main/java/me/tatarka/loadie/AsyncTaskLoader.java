@@ -1,22 +1,69 @@
 package me.tatarka.loadie;
 
-import android.os.AsyncTask;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.os.CancellationSignal;
 import android.support.v4.os.OperationCanceledException;
-import android.support.v4.util.Pair;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
- * A {@link Loader} that runs your some work in an {@link AsyncTask} similar to {@link
- * android.content.AsyncTaskLoader}.
+ * A {@link Loader} that runs your work on a background thread similar to {@link
+ * android.content.AsyncTaskLoader}. Unlike an {@link android.os.AsyncTask} a load only allocates a
+ * small runnable and it's cancellation signal, it's result is handed straight back to the loader
+ * through it's {@link DeliveryScheduler}. By default work is run on {@link
+ * PriorityExecutor#getDefault()} where work for loaders that are attached, because their {@link
+ * LoaderManager} is started, runs before work for ones that aren't.
+ * <p>
+ * The outcome is scheduled from the worker thread, so the scheduler must deliver it on the loader's
+ * thread. The default main thread scheduler does, {@link DeliverySchedulers#immediate()} only does
+ * with an executor that runs work inline.
  */
 public abstract class AsyncTaskLoader<T> extends Loader<T> {
 
+    public static final int PRIORITY_LOW = -10;
+    public static final int PRIORITY_DEFAULT = 0;
+    public static final int PRIORITY_HIGH = 10;
+    /**
+     * Added to the priority of attached loaders. Priorities must be smaller than this so that
+     * attached loaders always run first.
+     */
+    public static final int ATTACHED_PRIORITY_BOOST = 1000;
+
+    /**
+     * The tokens a {@link Run} is scheduled with, to deliver the latest published result or it's
+     * outcome.
+     */
+    private static final int DELIVER_PUBLISHED = 0;
+    private static final int DELIVER_COMPLETE = 1;
+
+    private static final Object NONE = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AsyncTaskLoader.Run, Object> LATEST =
+            AtomicReferenceFieldUpdater.newUpdater(AsyncTaskLoader.Run.class, Object.class, "latest");
+
     private final Executor executor;
-    private AsyncTask<Void, T, Pair<T, Throwable>> task;
+    private final Executor taskExecutor = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            if (executor instanceof PriorityExecutor) {
+                queuedTask = ((PriorityExecutor) executor).execute(command, getEffectivePriority());
+            } else {
+                executor.execute(command);
+            }
+        }
+    };
+    private volatile Run run;
+    @Nullable
+    private PriorityExecutor.Task queuedTask;
+    private int priority = PRIORITY_DEFAULT;
+    private boolean interruptOnCancel;
 
     public AsyncTaskLoader() {
-        this.executor = AsyncTask.THREAD_POOL_EXECUTOR;
+        this.executor = PriorityExecutor.getDefault();
     }
 
     public AsyncTaskLoader(Executor executor) {
@@ -25,46 +72,225 @@ public abstract class AsyncTaskLoader<T> extends Loader<T> {
 
     /**
      * Called on a worker thread to perform the load and return the result. To support
-     * cancellation, this method should periodically check {@link #isRunning()} and return early or
-     * throw an {@link android.support.v4.os.OperationCanceledException} if it returns false.
-     * Throwing any other exception will be propagated to {@link me.tatarka.loadie.Loader.Callbacks#onLoaderError(Throwable)}.
+     * cancellation, pass {@link #getCancellationSignal()} to queries and check {@link
+     * CancellationSignal#throwIfCanceled()} in long loops to stop promptly. If {@link
+     * #setInterruptOnCancel(boolean)} is set the thread is also interrupted, which stops blocking
+     * I/O. Throwing an {@link OperationCanceledException} after being canceled is not reported as
+     * an error, throwing any other exception will be propagated to {@link
+     * me.tatarka.loadie.Loader.Callbacks#onLoaderError(Throwable)}.
      */
+    @WorkerThread
     protected abstract T doInBackground();
 
+    /**
+     * Returns the signal that is canceled as soon as the load running {@link #doInBackground()}
+     * is. This must be called from the thread running doInBackground, if the load has already
+     * been canceled a canceled signal is returned.
+     */
+    @WorkerThread
+    protected final CancellationSignal getCancellationSignal() {
+        Run run = this.run;
+        if (run != null && run.thread == Thread.currentThread()) {
+            return run.cancellationSignal;
+        }
+        // The load on this thread is no longer the loader's run, so it was canceled. Not shared
+        // since a signal keeps the last listener set on it.
+        CancellationSignal canceled = new CancellationSignal();
+        canceled.cancel();
+        return canceled;
+    }
+
+    /**
+     * Publishes a partial result from {@link #doInBackground()} to be delivered to {@link
+     * Loader.Callbacks#onLoaderResult(Object)} before the final one, for example the first rows or
+     * a low resolution preview. Results are handed to the loader's {@link DeliveryScheduler}, if
+     * several are published before it gets to them only the latest is delivered. Partial results
+     * that haven't been delivered when doInBackground returns are dropped. This must be called from
+     * the thread running doInBackground, it's ignored if the loader has since been canceled.
+     */
+    @WorkerThread
+    protected final void publishResult(T result) {
+        Run run = this.run;
+        if (run != null && run.thread == Thread.currentThread()) {
+            run.publish(result);
+        }
+    }
+
+    /**
+     * Sets whether the worker thread is interrupted when the loader is canceled, defaults to
+     * false. Only enable this if {@link #doInBackground()} handles being
+     * interrupted, for example some I/O closes the stream it was reading from. This must be called
+     * on the main thread.
+     */
+    @MainThread
+    public void setInterruptOnCancel(boolean interruptOnCancel) {
+        this.interruptOnCancel = interruptOnCancel;
+    }
+
+    /**
+     * Sets the priority of the loader's work if it's run on a {@link PriorityExecutor}, higher
+     * priorities run first. Work that is already queued is moved to it's new place in the queue.
+     * This must be called on the main thread.
+     *
+     * @param priority The priority, between {@code -ATTACHED_PRIORITY_BOOST} and {@code
+     *                 ATTACHED_PRIORITY_BOOST} exclusive.
+     */
+    @MainThread
+    public void setPriority(int priority) {
+        if (priority <= -ATTACHED_PRIORITY_BOOST || priority >= ATTACHED_PRIORITY_BOOST) {
+            throw new IllegalArgumentException("priority must be between " + -ATTACHED_PRIORITY_BOOST + " and " + ATTACHED_PRIORITY_BOOST + " exclusive, got: " + priority);
+        }
+        this.priority = priority;
+        updatePriority();
+    }
+
+    /**
+     * Returns the priority set with {@link #setPriority(int)}.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the priority the loader's work is run with, this is raised by {@link
+     * #ATTACHED_PRIORITY_BOOST} while the loader is attached.
+     */
+    public int getEffectivePriority() {
+        return isAttached() ? priority + ATTACHED_PRIORITY_BOOST : priority;
+    }
+
     @Override
-    protected final void onStart(final Receiver receiver) {
-        task = new AsyncTask<Void, T, Pair<T, Throwable>>() {
-            @Override
-            protected Pair<T, Throwable> doInBackground(Void... params) {
-                try {
-                    return Pair.create(AsyncTaskLoader.this.doInBackground(), null);
-                } catch (OperationCanceledException e) {
-                    if (!isRunning()) {
-                        return null;
-                    } else {
-                        // Thrown when not actually canceled, just propagate exception.
-                        throw e;
-                    }
-                } catch (Exception e) {
-                    return Pair.<T, Throwable>create(null, e);
+    protected void onAttach() {
+        updatePriority();
+    }
+
+    @Override
+    protected void onDetach() {
+        updatePriority();
+    }
+
+    private void updatePriority() {
+        if (queuedTask != null) {
+            ((PriorityExecutor) executor).setPriority(queuedTask, getEffectivePriority());
+        }
+    }
+
+    @Override
+    protected final void onStart(Receiver receiver) {
+        Run run = new Run(receiver, new CancellationSignal(), interruptOnCancel);
+        this.run = run;
+        taskExecutor.execute(run);
+    }
+
+    @Override
+    protected final void onCancel() {
+        Run run = this.run;
+        this.run = null;
+        queuedTask = null;
+        // Null if canceled from the callbacks of the final result, the run is already complete.
+        // Anything the run has scheduled is ignored since it's no longer the loader's run.
+        if (run != null) {
+            run.cancellationSignal.cancel();
+        }
+    }
+
+    /**
+     * A single run of {@link #doInBackground()}. This is the only object allocated for a load
+     * besides the signal, it's run on the executor and then scheduled on the loader's {@link
+     * DeliveryScheduler} to deliver it's outcome. It also holds the latest partial result that
+     * hasn't been delivered yet.
+     */
+    private final class Run implements Runnable, DeliveryScheduler.Delivery {
+        final Receiver receiver;
+        final CancellationSignal cancellationSignal;
+        final boolean interruptOnCancel;
+        volatile Thread thread;
+        volatile Object latest = NONE;
+        // Only read on the loader's thread after run() schedules the delivery, which publishes them.
+        T result;
+        Throwable error;
+
+        Run(Receiver receiver, CancellationSignal cancellationSignal, boolean interruptOnCancel) {
+            this.receiver = receiver;
+            this.cancellationSignal = cancellationSignal;
+            this.interruptOnCancel = interruptOnCancel;
+        }
+
+        void publish(T result) {
+            if (LATEST.getAndSet(this, result) == NONE) {
+                getDeliveryScheduler().schedule(this, DELIVER_PUBLISHED);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void deliver(int token) {
+            if (this != AsyncTaskLoader.this.run) {
+                return;
+            }
+            if (token == DELIVER_PUBLISHED) {
+                Object result = LATEST.getAndSet(this, NONE);
+                if (result != NONE) {
+                    receiver.result((T) result);
                 }
+                return;
             }
+            AsyncTaskLoader.this.run = null;
+            queuedTask = null;
+            // Partial results that haven't been delivered are dropped.
+            LATEST.set(this, NONE);
+            if (error == null) {
+                receiver.success(result);
+            } else {
+                receiver.error(error);
+            }
+        }
 
-            @Override
-            protected void onPostExecute(Pair<T, Throwable> result) {
-                if (result.second == null) {
-                    receiver.success(result.first);
+        @Override
+        public void run() {
+            if (cancellationSignal.isCanceled()) {
+                // Canceled while it was queued.
+                return;
+            }
+            final Thread thread = Thread.currentThread();
+            this.thread = thread;
+            if (interruptOnCancel) {
+                cancellationSignal.setOnCancelListener(new CancellationSignal.OnCancelListener() {
+                    @Override
+                    public void onCancel() {
+                        thread.interrupt();
+                    }
+                });
+            }
+            LoaderTracer tracer = LoaderTracing.beginSection(AsyncTaskLoader.this, "doInBackground");
+            try {
+                result = doInBackground();
+            } catch (OperationCanceledException e) {
+                if (cancellationSignal.isCanceled()) {
+                    return;
                 } else {
-                    receiver.error(result.second);
+                    // Thrown when not actually canceled, just propagate exception.
+                    throw e;
+                }
+            } catch (Exception e) {
+                error = e;
+            } finally {
+                this.thread = null;
+                if (tracer != null) {
+                    tracer.endSection();
+                }
+                if (interruptOnCancel) {
+                    // Waits for a cancel in progress, so the thread can't be interrupted after.
+                    cancellationSignal.setOnCancelListener(null);
+                    if (cancellationSignal.isCanceled()) {
+                        // Don't leave the interrupt for the next work on this thread.
+                        Thread.interrupted();
+                    }
                 }
             }
-        };
-        task.executeOnExecutor(executor);
-    }
-
-    @Override
-    protected final void onCancel() {
-        task.cancel(false);
-        task = null;
+            if (!cancellationSignal.isCanceled()) {
+                getDeliveryScheduler().schedule(this, DELIVER_COMPLETE);
+            }
+        }
     }
 }
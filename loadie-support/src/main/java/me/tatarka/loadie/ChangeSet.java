@@ -0,0 +1,307 @@
+package me.tatarka.loadie;
+
+import java.util.Arrays;
+
+/**
+ * The rows that were inserted, removed and moved between two results, computed by {@link
+ * DiffCursorLoader}. Changes are in the order they must be applied, the positions of each change
+ * account for the ones before it, so they can be passed straight to a {@code
+ * RecyclerView.Adapter}.
+ */
+public final class ChangeSet {
+
+    public static final int INSERT = 0;
+    public static final int REMOVE = 1;
+    public static final int MOVE = 2;
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Each move shifts the rows between where it's from and where it's to, so past this many moves
+     * a change set costs more to compute and to animate than updating every row.
+     */
+    static final int MAX_MOVES = 250;
+
+    /**
+     * Computes the changes from the old ids to the new ones. Returns null if either contain
+     * duplicate ids, in which case the changes can't be described by position, or if more than
+     * {@link #MAX_MOVES} rows would move.
+     */
+    static ChangeSet compute(long[] oldIds, long[] newIds) {
+        IdPositions newPositions = new IdPositions(newIds.length);
+        for (int i = 0; i < newIds.length; i++) {
+            if (!newPositions.put(newIds[i], i)) {
+                return null;
+            }
+        }
+        Builder changes = new Builder();
+
+        // The rows that are kept by their new position, in their old order.
+        boolean[] kept = new boolean[newIds.length];
+        int[] targets = new int[oldIds.length];
+        int[] current = new int[Math.min(oldIds.length, newIds.length)];
+        int size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            int target = newPositions.get(oldIds[i]);
+            targets[i] = target;
+            if (target >= 0) {
+                if (kept[target]) {
+                    return null;
+                }
+                kept[target] = true;
+                current[size++] = target;
+            }
+        }
+
+        // The longest run of rows already in order stays put, everything else moves once.
+        boolean[] settled = new boolean[newIds.length];
+        if (size - longestIncreasing(current, size, settled) > MAX_MOVES) {
+            return null;
+        }
+
+        // Remove from the end so the positions of the rows before don't change.
+        for (int i = oldIds.length - 1; i >= 0; i--) {
+            if (targets[i] < 0) {
+                changes.add(REMOVE, i, 0);
+            }
+        }
+
+        // Rows before position i are in place, current[head, size) holds the rest in their
+        // current order, so the row at current[j] is at position i + j - head.
+        int head = 0;
+        for (int i = 0; i < newIds.length; i++) {
+            while (true) {
+                if (head < size) {
+                    int target = current[head];
+                    if (target == i) {
+                        head++;
+                        break;
+                    }
+                    if (!settled[target]) {
+                        // Move it in front of the first settled row that comes after it.
+                        int to = head + 1;
+                        while (to < size && !(settled[current[to]] && current[to] > target)) {
+                            to++;
+                        }
+                        to--;
+                        if (to != head) {
+                            System.arraycopy(current, head + 1, current, head, to - head);
+                            current[to] = target;
+                            changes.add(MOVE, i, i + to - head);
+                        }
+                        settled[target] = true;
+                        continue;
+                    }
+                }
+                if (kept[i]) {
+                    int from = head;
+                    while (current[from] != i) {
+                        from++;
+                    }
+                    System.arraycopy(current, head, current, head + 1, from - head);
+                    changes.add(MOVE, i + from - head, i);
+                    head++;
+                } else {
+                    changes.add(INSERT, i, 0);
+                }
+                settled[i] = true;
+                break;
+            }
+        }
+        return changes.build();
+    }
+
+    /**
+     * Marks the values of the longest increasing subsequence of the first size values in result
+     * and returns it's length.
+     */
+    private static int longestIncreasing(int[] values, int size, boolean[] result) {
+        int[] tails = new int[size];
+        int[] previous = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int value = values[i];
+            int lo = 0;
+            int hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[tails[mid]] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            previous[i] = lo > 0 ? tails[lo - 1] : -1;
+            tails[lo] = i;
+            if (lo == length) {
+                length++;
+            }
+        }
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            result[values[i]] = true;
+        }
+        return length;
+    }
+
+    private final int[] ops;
+
+    private ChangeSet(int[] ops) {
+        this.ops = ops;
+    }
+
+    /**
+     * Returns the number of changes.
+     */
+    public int size() {
+        return ops.length / 3;
+    }
+
+    /**
+     * Returns the type of the change at the given index, one of {@link #INSERT}, {@link #REMOVE} or
+     * {@link #MOVE}.
+     */
+    public int getType(int index) {
+        return ops[index * 3];
+    }
+
+    /**
+     * Returns the position of the change at the given index, for a move this is the position it's
+     * moved from.
+     */
+    public int getPosition(int index) {
+        return ops[index * 3 + 1];
+    }
+
+    /**
+     * Returns the position the row of the move at the given index is moved to.
+     */
+    public int getToPosition(int index) {
+        return ops[index * 3 + 2];
+    }
+
+    /**
+     * Applies the changes in order to the given callback.
+     */
+    public void dispatchTo(Callback callback) {
+        for (int i = 0; i < ops.length; i += 3) {
+            switch (ops[i]) {
+                case INSERT:
+                    callback.onInserted(ops[i + 1]);
+                    break;
+                case REMOVE:
+                    callback.onRemoved(ops[i + 1]);
+                    break;
+                case MOVE:
+                    callback.onMoved(ops[i + 1], ops[i + 2]);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ChangeSet[");
+        for (int i = 0; i < ops.length; i += 3) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            switch (ops[i]) {
+                case INSERT:
+                    builder.append("insert ").append(ops[i + 1]);
+                    break;
+                case REMOVE:
+                    builder.append("remove ").append(ops[i + 1]);
+                    break;
+                case MOVE:
+                    builder.append("move ").append(ops[i + 1]).append("->").append(ops[i + 2]);
+                    break;
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Receives the changes of a {@link ChangeSet}, this matches {@code
+     * android.support.v7.util.ListUpdateCallback} for single rows.
+     */
+    public interface Callback {
+        void onInserted(int position);
+
+        void onRemoved(int position);
+
+        void onMoved(int fromPosition, int toPosition);
+    }
+
+    /**
+     * Maps ids to their position without boxing them. An open addressing hash table sized up front
+     * for the number of ids it will hold.
+     */
+    private static final class IdPositions {
+        private final long[] ids;
+        /**
+         * The position plus one, so that 0 marks an empty slot.
+         */
+        private final int[] positions;
+        private final int mask;
+
+        IdPositions(int count) {
+            int capacity = Integer.highestOneBit(Math.max(4, count * 2) - 1) << 1;
+            ids = new long[capacity];
+            positions = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        /**
+         * Adds the position of the id, returning false if the id was already added.
+         */
+        boolean put(long id, int position) {
+            int i = hash(id) & mask;
+            while (positions[i] != 0) {
+                if (ids[i] == id) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            ids[i] = id;
+            positions[i] = position + 1;
+            return true;
+        }
+
+        /**
+         * Returns the position of the id, or -1 if it wasn't added.
+         */
+        int get(long id) {
+            int i = hash(id) & mask;
+            while (positions[i] != 0) {
+                if (ids[i] == id) {
+                    return positions[i] - 1;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    private static final class Builder {
+        private int[] ops = EMPTY;
+        private int size;
+
+        void add(int type, int position, int toPosition) {
+            if (size + 3 > ops.length) {
+                ops = Arrays.copyOf(ops, Math.max(12, ops.length * 2));
+            }
+            ops[size++] = type;
+            ops[size++] = position;
+            ops[size++] = toPosition;
+        }
+
+        ChangeSet build() {
+            return new ChangeSet(size == ops.length ? ops : Arrays.copyOf(ops, size));
+        }
+    }
+}
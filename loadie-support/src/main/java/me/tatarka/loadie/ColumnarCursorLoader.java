@@ -0,0 +1,91 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A loader like {@link CursorLoader} that copies selected columns into primitive arrays on the
+ * background thread and delivers them as a {@link ColumnarSnapshot}. This avoids allocating an
+ * object per row for large numeric tables. The cursor is closed as soon as it's copied. Create one
+ * with {@link CursorLoader.Builder#columnar()}.
+ */
+public final class ColumnarCursorLoader extends QueryLoader<ColumnarSnapshot> {
+
+    final String[] names;
+    final int[] types;
+
+    ColumnarCursorLoader(Query query, String[] names, int[] types) {
+        super(query);
+        this.names = names;
+        this.types = types;
+    }
+
+    @Override
+    boolean keepsCursor() {
+        return false;
+    }
+
+    @Override
+    ColumnarSnapshot onQuery(Query query, @Nullable Cursor cursor, @Nullable ColumnarSnapshot previous) {
+        if (cursor == null) {
+            return ColumnarSnapshot.empty(names, types);
+        }
+        try {
+            return ColumnarSnapshot.copy(cursor, names, types);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    void onRelease(ColumnarSnapshot result) {
+    }
+
+    public static class Builder implements Create<ColumnarCursorLoader> {
+        private final Query query;
+        private String[] names = new String[0];
+        private int[] types = new int[0];
+
+        Builder(Query query) {
+            this.query = query;
+        }
+
+        public Builder longColumn(String name) {
+            return add(name, ColumnarSnapshot.TYPE_LONG);
+        }
+
+        public Builder intColumn(String name) {
+            return add(name, ColumnarSnapshot.TYPE_INT);
+        }
+
+        public Builder doubleColumn(String name) {
+            return add(name, ColumnarSnapshot.TYPE_DOUBLE);
+        }
+
+        public Builder stringColumn(String name) {
+            return add(name, ColumnarSnapshot.TYPE_STRING);
+        }
+
+        private Builder add(String name, int type) {
+            names = Arrays.copyOf(names, names.length + 1);
+            names[names.length - 1] = name;
+            types = Arrays.copyOf(types, types.length + 1);
+            types[types.length - 1] = type;
+            return this;
+        }
+
+        public ColumnarCursorLoader build() {
+            return create();
+        }
+
+        @Override
+        public ColumnarCursorLoader create() {
+            if (names.length == 0) {
+                throw new IllegalStateException("no columns added");
+            }
+            return new ColumnarCursorLoader(query, names, types);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A copy of selected cursor columns in primitive arrays, one array per column, delivered by {@link
+ * ColumnarCursorLoader}. Strings are stored as indices into a table of the distinct strings in the
+ * snapshot, so repeated values are only stored once. Reading a value doesn't allocate. Nulls are
+ * read as 0 for numeric columns.
+ */
+public final class ColumnarSnapshot {
+
+    static final int TYPE_LONG = 0;
+    static final int TYPE_INT = 1;
+    static final int TYPE_DOUBLE = 2;
+    static final int TYPE_STRING = 3;
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private final String[] names;
+    private final int[] types;
+    private final Object[] columns;
+    private final String[] strings;
+    private final int count;
+
+    private ColumnarSnapshot(String[] names, int[] types, Object[] columns, String[] strings, int count) {
+        this.names = names;
+        this.types = types;
+        this.columns = columns;
+        this.strings = strings;
+        this.count = count;
+    }
+
+    /**
+     * Copies the given columns of every row of the cursor, leaving it after the last row.
+     */
+    static ColumnarSnapshot copy(Cursor cursor, String[] names, int[] types) {
+        int count = cursor.getCount();
+        int[] indices = new int[names.length];
+        Object[] columns = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indices[i] = cursor.getColumnIndexOrThrow(names[i]);
+            switch (types[i]) {
+                case TYPE_LONG:
+                    columns[i] = new long[count];
+                    break;
+                case TYPE_DOUBLE:
+                    columns[i] = new double[count];
+                    break;
+                default:
+                    columns[i] = new int[count];
+                    break;
+            }
+        }
+        HashMap<String, Integer> stringCodes = null;
+        cursor.moveToPosition(-1);
+        for (int row = 0; row < count && cursor.moveToNext(); row++) {
+            for (int i = 0; i < names.length; i++) {
+                int index = indices[i];
+                switch (types[i]) {
+                    case TYPE_LONG:
+                        ((long[]) columns[i])[row] = cursor.getLong(index);
+                        break;
+                    case TYPE_INT:
+                        ((int[]) columns[i])[row] = cursor.getInt(index);
+                        break;
+                    case TYPE_DOUBLE:
+                        ((double[]) columns[i])[row] = cursor.getDouble(index);
+                        break;
+                    case TYPE_STRING:
+                        String value = cursor.getString(index);
+                        int code = -1;
+                        if (value != null) {
+                            if (stringCodes == null) {
+                                stringCodes = new HashMap<>();
+                            }
+                            Integer existing = stringCodes.get(value);
+                            if (existing == null) {
+                                code = stringCodes.size();
+                                stringCodes.put(value, code);
+                            } else {
+                                code = existing;
+                            }
+                        }
+                        ((int[]) columns[i])[row] = code;
+                        break;
+                }
+            }
+        }
+        String[] strings = NO_STRINGS;
+        if (stringCodes != null) {
+            strings = new String[stringCodes.size()];
+            for (Map.Entry<String, Integer> entry : stringCodes.entrySet()) {
+                strings[entry.getValue()] = entry.getKey();
+            }
+        }
+        return new ColumnarSnapshot(names, types, columns, strings, count);
+    }
+
+    /**
+     * Returns an empty snapshot with the given columns.
+     */
+    static ColumnarSnapshot empty(String[] names, int[] types) {
+        Object[] columns = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            switch (types[i]) {
+                case TYPE_LONG:
+                    columns[i] = new long[0];
+                    break;
+                case TYPE_DOUBLE:
+                    columns[i] = new double[0];
+                    break;
+                default:
+                    columns[i] = new int[0];
+                    break;
+            }
+        }
+        return new ColumnarSnapshot(names, types, columns, NO_STRINGS, 0);
+    }
+
+    /**
+     * Returns the number of rows.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the index of the column with the given name in the order they were added to the
+     * {@link ColumnarCursorLoader.Builder}, or -1 if there isn't one.
+     */
+    public int getColumnIndex(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long getLong(int column, int row) {
+        return longs(column)[row];
+    }
+
+    public int getInt(int column, int row) {
+        return ints(column, TYPE_INT)[row];
+    }
+
+    public double getDouble(int column, int row) {
+        return doubles(column)[row];
+    }
+
+    /**
+     * Returns the string at the given row, or null if it was null.
+     */
+    public String getString(int column, int row) {
+        int code = ints(column, TYPE_STRING)[row];
+        return code >= 0 ? strings[code] : null;
+    }
+
+    /**
+     * Returns the values of a long column. This is the snapshot's own array so it must not be
+     * modified.
+     */
+    public long[] getLongs(int column) {
+        return longs(column);
+    }
+
+    /**
+     * Returns the values of an int column. This is the snapshot's own array so it must not be
+     * modified.
+     */
+    public int[] getInts(int column) {
+        return ints(column, TYPE_INT);
+    }
+
+    /**
+     * Returns the values of a double column. This is the snapshot's own array so it must not be
+     * modified.
+     */
+    public double[] getDoubles(int column) {
+        return doubles(column);
+    }
+
+    private long[] longs(int column) {
+        checkType(column, TYPE_LONG);
+        return (long[]) columns[column];
+    }
+
+    private int[] ints(int column, int type) {
+        checkType(column, type);
+        return (int[]) columns[column];
+    }
+
+    private double[] doubles(int column) {
+        checkType(column, TYPE_DOUBLE);
+        return (double[]) columns[column];
+    }
+
+    private void checkType(int column, int type) {
+        if (types[column] != type) {
+            throw new IllegalArgumentException("column " + names[column] + " is a " + typeName(types[column]) + " column, not " + typeName(type));
+        }
+    }
+
+    private static String typeName(int type) {
+        switch (type) {
+            case TYPE_LONG:
+                return "long";
+            case TYPE_INT:
+                return "int";
+            case TYPE_DOUBLE:
+                return "double";
+            default:
+                return "string";
+        }
+    }
+}
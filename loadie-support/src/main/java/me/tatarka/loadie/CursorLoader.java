@@ -1,135 +1,33 @@
 package me.tatarka.loadie;
 
 import android.content.ContentResolver;
-import android.database.ContentObserver;
 import android.database.Cursor;
 import android.net.Uri;
-import android.os.AsyncTask;
-import android.os.Handler;
-import android.support.v4.content.ContentResolverCompat;
-import android.support.v4.os.CancellationSignal;
-import android.support.v4.os.OperationCanceledException;
 
 /**
  * A {@link Loader} that queries a cursor and responds to changes much like {@link
- * android.content.CursorLoader}.
+ * android.content.CursorLoader}. Changes that are notified while a query is running are merged
+ * into a single query once it completes, and with {@link Builder#updateThrottle(long)} queries
+ * for changes can be spaced out further.
  */
-public final class CursorLoader extends Loader<Cursor> {
-
-    final ForceLoadContentObserver observer;
-
-    final ContentResolver resolver;
-    final Uri uri;
-    final String[] projection;
-    final String selection;
-    final String[] selectionArgs;
-    final String sortOrder;
-
-    Cursor cursor;
-    AsyncTask<Void, Void, Cursor> task;
-    CancellationSignal cancellationSignal;
-
-    CursorLoader(ContentResolver resolver, Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
-        observer = new ForceLoadContentObserver();
-        this.resolver = resolver;
-        this.uri = uri;
-        this.projection = projection;
-        this.selection = selection;
-        this.selectionArgs = selectionArgs;
-        this.sortOrder = sortOrder;
-    }
-
-    @Override
-    protected void onStart(final Receiver receiver) {
-        task = new AsyncTask<Void, Void, Cursor>() {
-            @Override
-            protected Cursor doInBackground(Void... params) {
-                synchronized (this) {
-                    if (isCancelled()) {
-                        return null;
-                    }
-                    cancellationSignal = new CancellationSignal();
-                }
-
-                try {
-                    Cursor cursor = ContentResolverCompat.query(resolver,
-                            uri, projection, selection, selectionArgs, sortOrder, cancellationSignal);
-                    if (cursor != null) {
-                        try {
-                            // Ensure the cursor window is filled.
-                            cursor.getCount();
-                            cursor.registerContentObserver(observer);
-                        } catch (RuntimeException e) {
-                            cursor.close();
-                            throw e;
-                        }
-                    }
-                    return cursor;
-                } catch (OperationCanceledException e) {
-                    // The query was canceled, this result won't be delivered anyway.
-                    return null;
-                } finally {
-                    synchronized (this) {
-                        cancellationSignal = null;
-                    }
-                }
-            }
-
-            @Override
-            protected void onPostExecute(Cursor cursor) {
-                if (!isRunning()) {
-                    if (cursor != null) {
-                        cursor.close();
-                    }
-                    return;
-                }
+public final class CursorLoader extends QueryLoader<Cursor> {
 
-                Cursor oldCursor = CursorLoader.this.cursor;
-                CursorLoader.this.cursor = cursor;
-
-                receiver.result(cursor);
-
-                if (oldCursor != null && oldCursor != cursor && !oldCursor.isClosed()) {
-                    oldCursor.close();
-                }
-            }
-        };
-        task.execute();
+    CursorLoader(Query query) {
+        super(query);
     }
 
     @Override
-    protected void onCancel() {
-        task = null;
-        synchronized (this) {
-            if (cancellationSignal != null) {
-                cancellationSignal.cancel();
-            }
-        }
+    Cursor onQuery(Query query, Cursor cursor, Cursor previous) {
+        return cursor;
     }
 
     @Override
-    protected void onDestroy() {
-        if (cursor != null && !cursor.isClosed()) {
+    void onRelease(Cursor cursor) {
+        if (!cursor.isClosed()) {
             cursor.close();
         }
     }
 
-    private final class ForceLoadContentObserver extends ContentObserver {
-        ForceLoadContentObserver() {
-            super(new Handler());
-        }
-
-        @Override
-        public boolean deliverSelfNotifications() {
-            return true;
-        }
-
-        @Override
-        public void onChange(boolean selfChange) {
-            restart();
-        }
-    }
-
     public static class Builder implements Create<CursorLoader> {
         private final ContentResolver resolver;
         private final Uri uri;
@@ -137,6 +35,7 @@ public final class CursorLoader extends Loader<Cursor> {
         private String selection;
         private String[] selectionArgs;
         private String sortOrder;
+        private long updateThrottle;
 
         public Builder(ContentResolver resolver, Uri uri) {
             this.resolver = resolver;
@@ -159,9 +58,75 @@ public final class CursorLoader extends Loader<Cursor> {
             return this;
         }
 
+        /**
+         * Sets the minimum time between a query completing and the next one starting for a change,
+         * changes within that time are merged into a single query. Defaults to 0, which reloads as
+         * soon as the running query completes.
+         */
+        public Builder updateThrottle(long delayMillis) {
+            if (delayMillis < 0) {
+                throw new IllegalArgumentException("delayMillis must be >= 0, got: " + delayMillis);
+            }
+            this.updateThrottle = delayMillis;
+            return this;
+        }
+
+        /**
+         * Compares each new cursor with the previous one by the given id column on the background
+         * thread, delivering it with the rows that were inserted, removed and moved. The ids must
+         * be unique.
+         *
+         * @see DiffCursorLoader
+         */
+        public DiffCursorLoader.Builder diffBy(String idColumn) {
+            return new DiffCursorLoader.Builder(query(), idColumn);
+        }
+
+        /**
+         * Maps each row to an object with the given mapper on the background thread, delivering
+         * an immutable list of them instead of a cursor. The indices of the given columns are
+         * looked up once per query and passed to the mapper.
+         *
+         * @see MappedCursorLoader
+         */
+        public <T> MappedCursorLoader.Builder<T> mapRows(RowMapper<T> mapper, String... columns) {
+            return new MappedCursorLoader.Builder<>(query(), mapper, columns);
+        }
+
+        /**
+         * Copies selected columns into primitive arrays on the background thread, delivering a
+         * {@link ColumnarSnapshot} instead of a cursor. Add the columns to the returned builder.
+         *
+         * @see ColumnarCursorLoader
+         */
+        public ColumnarCursorLoader.Builder columnar() {
+            return new ColumnarCursorLoader.Builder(query());
+        }
+
+        /**
+         * Queries a page of rows at a time as they are displayed, delivering the loaded pages
+         * instead of a single cursor. A sort order is required so that pages are stable.
+         *
+         * @see PagedCursorLoader
+         */
+        public PagedCursorLoader.Builder paged() {
+            if (sortOrder == null) {
+                throw new IllegalStateException("sortOrder is required to page results");
+            }
+            return new PagedCursorLoader.Builder(query());
+        }
+
+        public CursorLoader build() {
+            return create();
+        }
+
         @Override
         public CursorLoader create() {
-            return new CursorLoader(resolver, uri, projection, selection, selectionArgs, sortOrder);
+            return new CursorLoader(query());
+        }
+
+        private Query query() {
+            return new Query(resolver, uri, projection, selection, selectionArgs, sortOrder, updateThrottle);
         }
     }
 }
@@ -0,0 +1,104 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+import android.support.annotation.Nullable;
+
+/**
+ * A loader like {@link CursorLoader} that compares each new cursor with the previous one by a stable id column
+ * on the background thread, so that only the rows that changed need to be updated. Create one with
+ * {@link CursorLoader.Builder#diffBy(String)}.
+ */
+public final class DiffCursorLoader extends QueryLoader<DiffCursorLoader.Result> {
+
+    private static final long[] NO_IDS = new long[0];
+
+    final String idColumn;
+
+    DiffCursorLoader(Query query, String idColumn) {
+        super(query);
+        this.idColumn = idColumn;
+    }
+
+    @Override
+    Result onQuery(Query query, @Nullable Cursor cursor, @Nullable Result previous) {
+        long[] ids = NO_IDS;
+        if (cursor != null) {
+            try {
+                int idIndex = cursor.getColumnIndexOrThrow(idColumn);
+                ids = new long[cursor.getCount()];
+                for (int i = 0; i < ids.length; i++) {
+                    cursor.moveToPosition(i);
+                    ids[i] = cursor.getLong(idIndex);
+                }
+                cursor.moveToPosition(-1);
+            } catch (RuntimeException e) {
+                cursor.close();
+                throw e;
+            }
+        }
+        ChangeSet changes = previous != null ? ChangeSet.compute(previous.ids, ids) : null;
+        return new Result(cursor, ids, changes);
+    }
+
+    @Override
+    void onRelease(Result result) {
+        if (result.cursor != null && !result.cursor.isClosed()) {
+            result.cursor.close();
+        }
+    }
+
+    /**
+     * A cursor delivered by {@link DiffCursorLoader} along with how it changed from the previous
+     * one.
+     */
+    public static final class Result {
+        @Nullable
+        final Cursor cursor;
+        final long[] ids;
+        @Nullable
+        final ChangeSet changes;
+
+        Result(@Nullable Cursor cursor, long[] ids, @Nullable ChangeSet changes) {
+            this.cursor = cursor;
+            this.ids = ids;
+            this.changes = changes;
+        }
+
+        /**
+         * Returns the cursor, or null if the content provider returned null.
+         */
+        @Nullable
+        public Cursor getCursor() {
+            return cursor;
+        }
+
+        /**
+         * Returns the changes from the previous cursor, or null if this is the first one, the
+         * changes couldn't be computed because ids weren't unique, or so many rows moved that
+         * updating every row is cheaper. In that case every row should be updated.
+         */
+        @Nullable
+        public ChangeSet getChanges() {
+            return changes;
+        }
+    }
+
+    public static class Builder implements Create<DiffCursorLoader> {
+        private final Query query;
+        private final String idColumn;
+
+        Builder(Query query, String idColumn) {
+            this.query = query;
+            this.idColumn = idColumn;
+        }
+
+        public DiffCursorLoader build() {
+            return create();
+        }
+
+        @Override
+        public DiffCursorLoader create() {
+            return new DiffCursorLoader(query, idColumn);
+        }
+    }
+}
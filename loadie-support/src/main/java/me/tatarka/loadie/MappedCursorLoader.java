@@ -0,0 +1,76 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A loader like {@link CursorLoader} that maps each row to an object on the background thread and
+ * delivers an immutable list of them, so binding doesn't have to read from a cursor. The cursor
+ * is closed as soon as it's mapped. Create one with {@link CursorLoader.Builder#mapRows(RowMapper,
+ * String...)}.
+ */
+public final class MappedCursorLoader<T> extends QueryLoader<List<T>> {
+
+    final RowMapper<T> mapper;
+    final String[] columnNames;
+
+    MappedCursorLoader(Query query, RowMapper<T> mapper, String[] columnNames) {
+        super(query);
+        this.mapper = mapper;
+        this.columnNames = columnNames;
+    }
+
+    @Override
+    boolean keepsCursor() {
+        return false;
+    }
+
+    @Override
+    List<T> onQuery(Query query, @Nullable Cursor cursor, @Nullable List<T> previous) {
+        if (cursor == null) {
+            return Collections.emptyList();
+        }
+        try {
+            int[] columns = new int[columnNames.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = cursor.getColumnIndexOrThrow(columnNames[i]);
+            }
+            ArrayList<T> rows = new ArrayList<>(cursor.getCount());
+            while (cursor.moveToNext()) {
+                rows.add(mapper.map(cursor, columns));
+            }
+            return Collections.unmodifiableList(rows);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    void onRelease(List<T> result) {
+    }
+
+    public static class Builder<T> implements Create<MappedCursorLoader<T>> {
+        private final Query query;
+        private final RowMapper<T> mapper;
+        private final String[] columnNames;
+
+        Builder(Query query, RowMapper<T> mapper, String[] columnNames) {
+            this.query = query;
+            this.mapper = mapper;
+            this.columnNames = columnNames;
+        }
+
+        public MappedCursorLoader<T> build() {
+            return create();
+        }
+
+        @Override
+        public MappedCursorLoader<T> create() {
+            return new MappedCursorLoader<>(query, mapper, columnNames);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+import android.support.annotation.MainThread;
+import android.support.annotation.Nullable;
+
+/**
+ * A loader like {@link CursorLoader} that queries a page at a time for results too large to load
+ * at once. The first page is delivered as soon as it's queried and further pages are loaded as you
+ * call {@link #loadAround(int)} with the positions you display. Only a window of {@link
+ * Builder#maxPages(int)} pages is kept, pages that fall outside of it are closed and loaded again
+ * if you scroll back to them. Create one with {@link CursorLoader.Builder#paged()}.
+ * <p>
+ * Pages are queried by appending {@code LIMIT} and {@code OFFSET} to the sort order, so the content
+ * provider must pass the sort order through to SQLite and the sort order must be stable. A change
+ * reloads the page around the last position, spaced out by the query's update throttle.
+ */
+public final class PagedCursorLoader extends QueryLoader<PagedCursorLoader.Pages> {
+
+    final int pageSize;
+    final int prefetchDistance;
+    final int maxPages;
+
+    int lastPosition;
+
+    PagedCursorLoader(Query query, int pageSize, int prefetchDistance, int maxPages) {
+        super(query);
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.maxPages = maxPages;
+    }
+
+    @Override
+    boolean observesUri() {
+        // Observe the uri instead of each page's cursor so a change is only seen once no matter how
+        // many pages are loaded.
+        return true;
+    }
+
+    @Override
+    void onStartQuery() {
+        // Reload around where we were when restarted for a change.
+        loadPage(lastPosition / pageSize, true);
+    }
+
+    /**
+     * Tells the loader the given position is being displayed so it can load the pages around it.
+     * Call this as you bind each row, it does nothing if the pages are already loaded. This must be
+     * called on the main thread.
+     */
+    @MainThread
+    public void loadAround(int position) {
+        position = Math.max(0, position);
+        lastPosition = position;
+        Pages pages = result;
+        if (!isRunning() || querying || pages == null) {
+            return;
+        }
+        Page first = pages.pages[0];
+        Page last = pages.pages[pages.pages.length - 1];
+        int start = first.start;
+        int end = last.start + last.count;
+        if (position < start - pageSize || (!pages.complete && position >= end + pageSize)) {
+            // Jumped away from the loaded pages, start over where we are.
+            loadPage(position / pageSize, true);
+            return;
+        }
+        // Only load a page if the one it would release isn't needed.
+        boolean full = pages.pages.length >= maxPages;
+        if (!pages.complete && end - 1 - position <= prefetchDistance
+                && (!full || position - prefetchDistance >= start + first.count)) {
+            loadPage(last.index + 1, false);
+        } else if (first.index > 0 && position - start <= prefetchDistance
+                && (!full || position + prefetchDistance < last.start)) {
+            loadPage(first.index - 1, false);
+        }
+    }
+
+    void loadPage(int index, boolean reset) {
+        runQuery(query.page(index * pageSize, pageSize), reset ? null : result);
+    }
+
+    @Override
+    Pages onQuery(Query query, @Nullable Cursor cursor, @Nullable Pages previous) {
+        Page page = new Page(query.offset / pageSize, query.offset, cursor);
+        if (previous == null) {
+            return new Pages(new Page[]{page}, pageSize, page.count < pageSize);
+        }
+        Page[] pages = previous.pages;
+        Page[] newPages;
+        boolean complete;
+        if (page.index > pages[pages.length - 1].index) {
+            // Release the first page if there are too many.
+            int from = pages.length >= maxPages ? 1 : 0;
+            newPages = new Page[pages.length - from + 1];
+            System.arraycopy(pages, from, newPages, 0, pages.length - from);
+            newPages[newPages.length - 1] = page;
+            complete = page.count < pageSize;
+        } else {
+            // Release the last page if there are too many.
+            int count = pages.length >= maxPages ? pages.length - 1 : pages.length;
+            newPages = new Page[count + 1];
+            newPages[0] = page;
+            System.arraycopy(pages, 0, newPages, 1, count);
+            complete = previous.complete && count == pages.length;
+        }
+        return new Pages(newPages, pageSize, complete);
+    }
+
+    @Override
+    void onQueryComplete(Query query, Pages newResult) {
+        Page page = newResult.pages[0];
+        if (newResult.pages.length == 1 && page.count == 0 && page.index > 0) {
+            // The rows shrank to before where we were, start over from the top. The query for it
+            // runs after any change seen so far.
+            onRelease(newResult);
+            lastPosition = 0;
+            contentChanged = false;
+            loadPage(0, true);
+            return;
+        }
+        super.onQueryComplete(query, newResult);
+        if (!contentChanged) {
+            loadAround(lastPosition);
+        }
+    }
+
+    @Override
+    void onRelease(Pages pages) {
+        // Pages that are still delivered are shared with the new result. This is released after
+        // the new result is delivered, so the old pages are never displayed closed.
+        Pages current = result;
+        for (Page page : pages.pages) {
+            if (current == null || !current.contains(page)) {
+                page.close();
+            }
+        }
+    }
+
+    static final class Page {
+        final int index;
+        final int start;
+        final int count;
+        @Nullable
+        final Cursor cursor;
+
+        Page(int index, int start, @Nullable Cursor cursor) {
+            this.index = index;
+            this.start = start;
+            this.cursor = cursor;
+            this.count = cursor != null ? cursor.getCount() : 0;
+        }
+
+        void close() {
+            if (cursor != null && !cursor.isClosed()) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * The pages loaded by a {@link PagedCursorLoader}. This doesn't change, a new one is delivered
+     * each time a page is loaded or released.
+     */
+    public static final class Pages {
+        final Page[] pages;
+        final int pageSize;
+        final boolean complete;
+
+        Pages(Page[] pages, int pageSize, boolean complete) {
+            this.pages = pages;
+            this.pageSize = pageSize;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns the number of rows up to the end of the last loaded page. This grows as more
+         * pages are loaded until {@link #isComplete()}.
+         */
+        public int getCount() {
+            if (pages.length == 0) {
+                return 0;
+            }
+            Page last = pages[pages.length - 1];
+            return last.start + last.count;
+        }
+
+        /**
+         * Returns true if the last page has been loaded, so {@link #getCount()} is the total number
+         * of rows.
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Returns the position of the first row that is loaded, rows before it have been released.
+         */
+        public int getFirstLoadedPosition() {
+            return pages.length == 0 ? 0 : pages[0].start;
+        }
+
+        /**
+         * Moves to the row at the given position and returns the cursor of it's page, or returns
+         * null if the row isn't loaded. Call {@link PagedCursorLoader#loadAround(int)} to load it.
+         */
+        @Nullable
+        public Cursor moveToPosition(int position) {
+            if (pages.length == 0 || position < 0) {
+                return null;
+            }
+            int i = position / pageSize - pages[0].index;
+            if (i < 0 || i >= pages.length) {
+                return null;
+            }
+            Page page = pages[i];
+            if (page.cursor == null || !page.cursor.moveToPosition(position - page.start)) {
+                return null;
+            }
+            return page.cursor;
+        }
+
+        boolean contains(Page page) {
+            for (Page p : pages) {
+                if (p == page) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static class Builder implements Create<PagedCursorLoader> {
+        private final Query query;
+        private int pageSize = 50;
+        private int prefetchDistance = -1;
+        private int maxPages = 5;
+
+        Builder(Query query) {
+            this.query = query;
+        }
+
+        /**
+         * Sets the number of rows in a page. Defaults to 50.
+         */
+        public Builder pageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize must be > 0, got: " + pageSize);
+            }
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets how close to the end of the loaded rows {@link PagedCursorLoader#loadAround(int)}
+         * must be to load the next page. Defaults to half the page size.
+         */
+        public Builder prefetchDistance(int prefetchDistance) {
+            if (prefetchDistance < 0) {
+                throw new IllegalArgumentException("prefetchDistance must be >= 0, got: " + prefetchDistance);
+            }
+            this.prefetchDistance = prefetchDistance;
+            return this;
+        }
+
+        /**
+         * Sets the number of pages to keep loaded, pages furthest from the last position are
+         * released past this. Defaults to 5.
+         */
+        public Builder maxPages(int maxPages) {
+            if (maxPages < 2) {
+                throw new IllegalArgumentException("maxPages must be >= 2, got: " + maxPages);
+            }
+            this.maxPages = maxPages;
+            return this;
+        }
+
+        public PagedCursorLoader build() {
+            return create();
+        }
+
+        @Override
+        public PagedCursorLoader create() {
+            return new PagedCursorLoader(query, pageSize,
+                    prefetchDistance >= 0 ? prefetchDistance : pageSize / 2, maxPages);
+        }
+    }
+}
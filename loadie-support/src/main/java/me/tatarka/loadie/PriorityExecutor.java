@@ -0,0 +1,125 @@
+package me.tatarka.loadie;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link Executor} that runs queued work in order of priority instead of the order it was
+ * submitted, work with the same priority runs in submission order. The priority of queued work can
+ * be changed with {@link #setPriority(Task, int)}. This is the default executor for {@link
+ * AsyncTaskLoader} so that loaders for what is on screen run before any others.
+ */
+public class PriorityExecutor implements Executor {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    // Same as AsyncTask.THREAD_POOL_EXECUTOR
+    private static final int THREAD_COUNT = Math.max(2, Math.min(CPU_COUNT - 1, 4));
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    private static PriorityExecutor defaultExecutor;
+
+    /**
+     * Returns a shared executor sized like {@link android.os.AsyncTask#THREAD_POOL_EXECUTOR}.
+     */
+    public static synchronized PriorityExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new PriorityExecutor(THREAD_COUNT);
+        }
+        return defaultExecutor;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Creates an executor that runs work on up to the given number of threads.
+     */
+    public PriorityExecutor(int threadCount) {
+        executor = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(@NonNull Runnable r) {
+                return new Thread(r, "PriorityExecutor #" + count.getAndIncrement());
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs the given work with a priority of 0.
+     */
+    @Override
+    public void execute(@NonNull Runnable command) {
+        execute(command, 0);
+    }
+
+    /**
+     * Runs the given work with the given priority, higher priorities run first. Returns a task
+     * that can be passed to {@link #setPriority(Task, int)}.
+     */
+    public Task execute(@NonNull Runnable command, int priority) {
+        Task task = new Task(command, priority, sequence.getAndIncrement());
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Changes the priority of the given task. If it's still queued it will be moved to it's new
+     * place in the queue, otherwise this does nothing.
+     */
+    public void setPriority(Task task, int priority) {
+        if (task.priority == priority) {
+            return;
+        }
+        if (executor.remove(task)) {
+            task.priority = priority;
+            executor.execute(task);
+        } else {
+            task.priority = priority;
+        }
+    }
+
+    /**
+     * Work queued on a {@link PriorityExecutor}.
+     */
+    public static final class Task implements Runnable, Comparable<Task> {
+        private final Runnable command;
+        private final long sequence;
+        volatile int priority;
+
+        Task(Runnable command, int priority, long sequence) {
+            this.command = command;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Returns the priority the task is queued with.
+         */
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+
+        @Override
+        public int compareTo(@NonNull Task other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
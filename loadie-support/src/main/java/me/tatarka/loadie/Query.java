@@ -0,0 +1,52 @@
+package me.tatarka.loadie;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.support.v4.content.ContentResolverCompat;
+import android.support.v4.os.CancellationSignal;
+
+/**
+ * The query a {@link QueryLoader} runs, built with {@link CursorLoader.Builder}.
+ */
+final class Query {
+    final ContentResolver resolver;
+    final Uri uri;
+    final String[] projection;
+    final String selection;
+    final String[] selectionArgs;
+    final String sortOrder;
+    final long updateThrottle;
+    /**
+     * The first row of a page of the query, or 0 if it isn't paged.
+     */
+    final int offset;
+
+    Query(ContentResolver resolver, Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder, long updateThrottle) {
+        this(resolver, uri, projection, selection, selectionArgs, sortOrder, updateThrottle, 0);
+    }
+
+    private Query(ContentResolver resolver, Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder, long updateThrottle, int offset) {
+        this.resolver = resolver;
+        this.uri = uri;
+        this.projection = projection;
+        this.selection = selection;
+        this.selectionArgs = selectionArgs;
+        this.sortOrder = sortOrder;
+        this.updateThrottle = updateThrottle;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns a page of this query by appending {@code LIMIT} and {@code OFFSET} to the sort order.
+     */
+    Query page(int offset, int limit) {
+        return new Query(resolver, uri, projection, selection, selectionArgs,
+                sortOrder + " LIMIT " + limit + " OFFSET " + offset, updateThrottle, offset);
+    }
+
+    Cursor run(CancellationSignal cancellationSignal) {
+        return ContentResolverCompat.query(resolver,
+                uri, projection, selection, selectionArgs, sortOrder, cancellationSignal);
+    }
+}
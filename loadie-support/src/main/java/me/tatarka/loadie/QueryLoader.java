@@ -0,0 +1,276 @@
+package me.tatarka.loadie;
+
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v4.os.CancellationSignal;
+import android.support.v4.os.OperationCanceledException;
+
+/**
+ * Runs a {@link Query} in the background and reloads when it's data changes. Subclasses turn the
+ * queried cursor into the result they deliver in {@link #onQuery(Query, Cursor, Object)}. Changes
+ * that are notified while a query is running are merged into a single query once it completes, and
+ * are further spaced out by the query's update throttle.
+ */
+abstract class QueryLoader<T> extends Loader<T> {
+
+    final Handler handler;
+    final ForceLoadContentObserver observer;
+    final Runnable reload = new Runnable() {
+        @Override
+        public void run() {
+            restart();
+        }
+    };
+
+    final Query query;
+
+    T result;
+    AsyncTask<Void, Void, T> task;
+    CancellationSignal cancellationSignal;
+    /**
+     * If a query is running, changes are held until it completes.
+     */
+    boolean querying;
+    /**
+     * If there was a change since the running query started or a reload is scheduled for it.
+     */
+    boolean contentChanged;
+    long lastQueryCompleteTime;
+    boolean observingResolver;
+
+    QueryLoader(Query query) {
+        handler = new Handler();
+        observer = new ForceLoadContentObserver(handler);
+        this.query = query;
+    }
+
+    /**
+     * Called on a worker thread to turn the queried cursor into the result to deliver. The query
+     * is the one that was run, which is the loader's unless it was passed to {@link
+     * #runQuery(Query, Object)}. The cursor is null if the content provider returned null. The
+     * previous result is the one currently delivered, or null if there isn't one or the query
+     * replaces it, it must only be read.
+     */
+    @WorkerThread
+    abstract T onQuery(Query query, @Nullable Cursor cursor, @Nullable T previous);
+
+    /**
+     * Called when a result is no longer delivered so that it's resources can be released.
+     */
+    abstract void onRelease(T result);
+
+    /**
+     * Returns true if the result keeps the cursor open. Otherwise the cursor is closed in {@link
+     * #onQuery(Query, Cursor, Object)}.
+     */
+    boolean keepsCursor() {
+        return true;
+    }
+
+    /**
+     * Returns true if changes are observed on the query's uri and it's descendants, otherwise
+     * they are observed on the cursor that is kept open.
+     */
+    boolean observesUri() {
+        return !keepsCursor();
+    }
+
+    @Override
+    boolean canConflateResults() {
+        // The previous cursor is closed right after the new one is delivered.
+        return !keepsCursor();
+    }
+
+    @Override
+    protected void onStart(Receiver receiver) {
+        contentChanged = false;
+        if (observesUri() && !observingResolver) {
+            query.resolver.registerContentObserver(query.uri, true, observer);
+            observingResolver = true;
+        }
+        onStartQuery();
+    }
+
+    /**
+     * Runs the first query when the loader is started or restarted for a change. By default this
+     * runs the loader's query.
+     */
+    void onStartQuery() {
+        runQuery(query, result);
+    }
+
+    /**
+     * Runs the given query in the background and passes the cursor to {@link #onQuery(Query,
+     * Cursor, Object)} with the given previous result. This must not be called while another
+     * query is running.
+     */
+    void runQuery(final Query query, @Nullable final T previous) {
+        querying = true;
+        task = new AsyncTask<Void, Void, T>() {
+            @Override
+            protected T doInBackground(Void... params) {
+                synchronized (QueryLoader.this) {
+                    if (isCancelled()) {
+                        return null;
+                    }
+                    cancellationSignal = new CancellationSignal();
+                }
+
+                Cursor cursor;
+                try {
+                    cursor = query.run(cancellationSignal);
+                } catch (OperationCanceledException e) {
+                    // The query was canceled, this result won't be delivered anyway.
+                    return null;
+                } finally {
+                    synchronized (QueryLoader.this) {
+                        cancellationSignal = null;
+                    }
+                }
+                if (cursor != null) {
+                    try {
+                        // Ensure the cursor window is filled.
+                        cursor.getCount();
+                        if (!observesUri()) {
+                            cursor.registerContentObserver(observer);
+                        }
+                    } catch (RuntimeException e) {
+                        cursor.close();
+                        throw e;
+                    }
+                }
+                return onQuery(query, cursor, previous);
+            }
+
+            @Override
+            protected void onPostExecute(T newResult) {
+                if (!isRunning() || task != this) {
+                    if (newResult != null) {
+                        onRelease(newResult);
+                    }
+                    return;
+                }
+                task = null;
+                querying = false;
+                lastQueryCompleteTime = SystemClock.uptimeMillis();
+
+                onQueryComplete(query, newResult);
+
+                if (contentChanged) {
+                    contentChanged = false;
+                    onContentChanged();
+                }
+            }
+        };
+        task.execute();
+    }
+
+    /**
+     * Called on the main thread when a query completes while the loader is running, delivers the
+     * new result and releases the one it replaces.
+     */
+    void onQueryComplete(Query query, T newResult) {
+        T oldResult = result;
+        result = newResult;
+
+        receiver.result(newResult);
+
+        if (oldResult != null && oldResult != newResult) {
+            onRelease(oldResult);
+        }
+    }
+
+    @Override
+    protected void onCancel() {
+        task = null;
+        querying = false;
+        contentChanged = false;
+        handler.removeCallbacks(reload);
+        synchronized (this) {
+            if (cancellationSignal != null) {
+                cancellationSignal.cancel();
+            }
+        }
+    }
+
+    @Override
+    boolean isObserving() {
+        return !querying && result != null;
+    }
+
+    @Override
+    void onTrim() {
+        // Stop observing so a change doesn't query again until the loader is started.
+        if (observingResolver) {
+            query.resolver.unregisterContentObserver(observer);
+            observingResolver = false;
+        }
+        T result = this.result;
+        if (result != null) {
+            this.result = null;
+            onRelease(result);
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(reload);
+        if (observingResolver) {
+            query.resolver.unregisterContentObserver(observer);
+            observingResolver = false;
+        }
+        T result = this.result;
+        if (result != null) {
+            this.result = null;
+            onRelease(result);
+        }
+    }
+
+    /**
+     * Reloads for a change, waiting for a running query to complete and for the update throttle
+     * since the last one completed.
+     */
+    void onContentChanged() {
+        if (!isRunning()) {
+            // Canceled, the next start queries anyway.
+            return;
+        }
+        if (contentChanged) {
+            // Already waiting to reload.
+            return;
+        }
+        if (querying) {
+            contentChanged = true;
+            return;
+        }
+        long updateThrottle = query.updateThrottle;
+        long reloadTime = lastQueryCompleteTime + updateThrottle;
+        if (updateThrottle > 0 && SystemClock.uptimeMillis() < reloadTime) {
+            contentChanged = true;
+            handler.postAtTime(reload, reloadTime);
+            return;
+        }
+        restart();
+    }
+
+    final class ForceLoadContentObserver extends ContentObserver {
+        ForceLoadContentObserver(Handler handler) {
+            super(handler);
+        }
+
+        @Override
+        public boolean deliverSelfNotifications() {
+            return true;
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            onContentChanged();
+        }
+    }
+}
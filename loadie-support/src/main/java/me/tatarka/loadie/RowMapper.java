@@ -0,0 +1,21 @@
+package me.tatarka.loadie;
+
+import android.database.Cursor;
+import android.support.annotation.WorkerThread;
+
+/**
+ * Maps a cursor row to an object for {@link MappedCursorLoader}. It's called on a worker thread
+ * so it must not touch the ui or keep any state.
+ *
+ * @see CursorLoader.Builder#mapRows(RowMapper, String...)
+ */
+public interface RowMapper<T> {
+    /**
+     * Maps the row the cursor is at.
+     *
+     * @param columns the indices of the columns given to {@link CursorLoader.Builder#mapRows(RowMapper,
+     *                String...)}, in the same order. These are looked up once per query.
+     */
+    @WorkerThread
+    T map(Cursor cursor, int[] columns);
+}
@@ -2,22 +2,33 @@ package me.tatarka.loadie;
 
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.os.CancellationSignal;
 import android.support.v4.os.OperationCanceledException;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 import org.robolectric.shadows.ShadowApplication;
 import org.robolectric.util.Scheduler;
 
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -53,6 +64,51 @@ public class AsyncTaskLoaderTest {
         verify(callbacks).onLoaderSuccess();
     }
 
+    @Test
+    public void restartingFromSuccessRunsAgain() {
+        final int[] successCount = new int[1];
+        loader.setResult("test");
+        loader.setCallbacks(new Loader.CallbacksAdapter<String>() {
+            @Override
+            public void onLoaderSuccess() {
+                if (++successCount[0] == 1) {
+                    loader.restart();
+                }
+            }
+        });
+        background.pause();
+        loader.start();
+        background.unPause();
+
+        assertEquals(2, successCount[0]);
+    }
+
+    @Test
+    public void restartingFromFinalResultRunsAgain() {
+        final int[] resultCount = new int[1];
+        final int[] successCount = new int[1];
+        loader.setResult("test");
+        loader.setCallbacks(new Loader.CallbacksAdapter<String>() {
+            @Override
+            public void onLoaderResult(String result) {
+                if (++resultCount[0] == 1) {
+                    loader.restart();
+                }
+            }
+
+            @Override
+            public void onLoaderSuccess() {
+                successCount[0]++;
+            }
+        });
+        background.pause();
+        loader.start();
+        background.unPause();
+
+        assertEquals(2, resultCount[0]);
+        assertEquals(1, successCount[0]);
+    }
+
     @Test
     public void cancelDoesNotCallCallbacks() {
         background.pause();
@@ -95,7 +151,7 @@ public class AsyncTaskLoaderTest {
         background.unPause();
 
         assertNotNull(backgroundExecutor.exception);
-        assertEquals(OperationCanceledException.class, backgroundExecutor.exception.getCause().getClass());
+        assertEquals(OperationCanceledException.class, backgroundExecutor.exception.getClass());
     }
 
     @Test
@@ -114,6 +170,195 @@ public class AsyncTaskLoaderTest {
         verifyNoMoreInteractions(callbacks);
     }
 
+    @Test
+    public void cancelCancelsSignal() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BlockingLoader loader = new BlockingLoader(executor);
+        loader.start();
+        assertTrue(loader.started.await(1, TimeUnit.SECONDS));
+        loader.cancel();
+
+        assertTrue(loader.finished.await(1, TimeUnit.SECONDS));
+        assertTrue(loader.signal.isCanceled());
+        assertFalse(loader.interrupted);
+        executor.shutdown();
+    }
+
+    @Test
+    public void cancelInterruptsWhenEnabled() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BlockingLoader loader = new BlockingLoader(executor);
+        loader.blockUninterruptibly = false;
+        loader.setInterruptOnCancel(true);
+        loader.start();
+        assertTrue(loader.started.await(1, TimeUnit.SECONDS));
+        loader.cancel();
+
+        assertTrue(loader.finished.await(1, TimeUnit.SECONDS));
+        assertTrue(loader.interrupted);
+        executor.shutdown();
+    }
+
+    @Test
+    public void publishedResultsAreConflatedBeforeFinalResult() {
+        PublishingLoader loader = new PublishingLoader(backgroundExecutor, "a", "b");
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        Scheduler foreground = Robolectric.getForegroundThreadScheduler();
+        foreground.pause();
+        loader.start();
+
+        foreground.unPause();
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderStart();
+        inOrder.verify(callbacks).onLoaderResult("b");
+        inOrder.verify(callbacks).onLoaderResult("result");
+        inOrder.verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void publishedResultsAfterCancelAreDropped() {
+        PublishingLoader loader = new PublishingLoader(backgroundExecutor, "a");
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        Scheduler foreground = Robolectric.getForegroundThreadScheduler();
+        foreground.pause();
+        loader.start();
+        loader.cancel();
+
+        foreground.unPause();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void outcomeIsDeliveredThroughDeliveryScheduler() {
+        final ArrayDeque<Runnable> deliveries = new ArrayDeque<>();
+        PublishingLoader loader = new PublishingLoader(INLINE, "a");
+        loader.setDeliveryScheduler(DeliverySchedulers.from(new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                deliveries.add(command);
+            }
+        }));
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        while (!deliveries.isEmpty()) {
+            deliveries.poll().run();
+        }
+
+        InOrder inOrder = inOrder(callbacks);
+        inOrder.verify(callbacks).onLoaderResult("a");
+        inOrder.verify(callbacks).onLoaderResult("result");
+        inOrder.verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void immediateSchedulerWithInlineExecutorDeliversInStart() {
+        PublishingLoader loader = new PublishingLoader(INLINE);
+        loader.setDeliveryScheduler(DeliverySchedulers.immediate());
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verify(callbacks).onLoaderResult("result");
+        verify(callbacks).onLoaderSuccess();
+    }
+
+    @Test
+    public void attachingRaisesPriority() {
+        loader.setPriority(AsyncTaskLoader.PRIORITY_HIGH);
+
+        assertEquals(AsyncTaskLoader.PRIORITY_HIGH, loader.getEffectivePriority());
+
+        loader.setCallbacks(mock(Loader.Callbacks.class));
+
+        assertEquals(AsyncTaskLoader.PRIORITY_HIGH + AsyncTaskLoader.ATTACHED_PRIORITY_BOOST, loader.getEffectivePriority());
+
+        loader.setCallbacks(null);
+
+        assertEquals(AsyncTaskLoader.PRIORITY_HIGH, loader.getEffectivePriority());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void priorityOutOfRangeThrows() {
+        loader.setPriority(AsyncTaskLoader.ATTACHED_PRIORITY_BOOST);
+    }
+
+    static final Executor INLINE = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private static class PublishingLoader extends AsyncTaskLoader<String> {
+        final String[] partialResults;
+
+        PublishingLoader(Executor executor, String... partialResults) {
+            super(executor);
+            this.partialResults = partialResults;
+        }
+
+        @Override
+        protected String doInBackground() {
+            for (String result : partialResults) {
+                publishResult(result);
+            }
+            return "result";
+        }
+    }
+
+    /**
+     * Blocks on a real thread until it's canceled.
+     */
+    private static class BlockingLoader extends AsyncTaskLoader<String> {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile CancellationSignal signal;
+        volatile boolean blockUninterruptibly = true;
+        volatile boolean interrupted;
+
+        BlockingLoader(Executor executor) {
+            super(executor);
+        }
+
+        @Override
+        protected String doInBackground() {
+            CancellationSignal cancellationSignal = getCancellationSignal();
+            signal = cancellationSignal;
+            started.countDown();
+            try {
+                if (blockUninterruptibly) {
+                    while (true) {
+                        cancellationSignal.throwIfCanceled();
+                        Thread.yield();
+                    }
+                } else {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        throw new OperationCanceledException();
+                    }
+                    return null;
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+    }
+
     private static class BackgroundThreadSchedulerExecutor implements Executor {
         @Nullable
         Throwable exception;
@@ -0,0 +1,163 @@
+package me.tatarka.loadie;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JUnit4.class)
+public class ChangeSetTest {
+
+    @Test
+    public void noChanges() {
+        ChangeSet changes = ChangeSet.compute(ids(1, 2, 3), ids(1, 2, 3));
+
+        assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void insertsAndRemoves() {
+        ChangeSet changes = ChangeSet.compute(ids(1, 2, 3), ids(1, 3, 4));
+
+        assertEquals("ChangeSet[remove 1, insert 2]", changes.toString());
+    }
+
+    @Test
+    public void movingARowToTheEndIsASingleMove() {
+        ChangeSet changes = ChangeSet.compute(ids(1, 2, 3, 4), ids(2, 3, 4, 1));
+
+        assertEquals("ChangeSet[move 0->3]", changes.toString());
+    }
+
+    @Test
+    public void movingARowToTheStartIsASingleMove() {
+        ChangeSet changes = ChangeSet.compute(ids(1, 2, 3, 4), ids(4, 1, 2, 3));
+
+        assertEquals("ChangeSet[move 3->0]", changes.toString());
+    }
+
+    @Test
+    public void duplicateIdsReturnNull() {
+        assertNull(ChangeSet.compute(ids(1, 2), ids(1, 1)));
+        assertNull(ChangeSet.compute(ids(1, 1), ids(1, 2)));
+    }
+
+    @Test
+    public void applyingChangesToOldIdsGivesNewIds() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            long[] oldIds = randomIds(random);
+            long[] newIds = randomIds(random);
+            ChangeSet changes = ChangeSet.compute(oldIds, newIds);
+
+            assertEquals(toList(newIds), apply(changes, oldIds, newIds));
+        }
+    }
+
+    @Test
+    public void largeChangeWithFewMovesIsComputed() {
+        Random random = new Random(42);
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id < 50000; id++) {
+            ids.add(id);
+        }
+        long[] oldIds = toArray(ids);
+        for (int i = 0; i < ChangeSet.MAX_MOVES; i++) {
+            ids.add(random.nextInt(ids.size()), ids.remove(random.nextInt(ids.size())));
+        }
+        for (int i = 0; i < 1000; i++) {
+            ids.remove(random.nextInt(ids.size()));
+            ids.add(random.nextInt(ids.size()), 50000L + i);
+        }
+        long[] newIds = toArray(ids);
+        ChangeSet changes = ChangeSet.compute(oldIds, newIds);
+
+        assertEquals(toList(newIds), apply(changes, oldIds, newIds));
+    }
+
+    @Test
+    public void tooManyMovesReturnNull() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id < 50000; id++) {
+            ids.add(id);
+        }
+        long[] oldIds = toArray(ids);
+        Collections.reverse(ids);
+        long[] reversed = toArray(ids);
+        Collections.shuffle(ids, new Random(42));
+        long[] shuffled = toArray(ids);
+
+        assertNull(ChangeSet.compute(oldIds, reversed));
+        assertNull(ChangeSet.compute(oldIds, shuffled));
+    }
+
+    static long[] ids(long... ids) {
+        return ids;
+    }
+
+    static long[] randomIds(Random random) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id < 30; id++) {
+            if (random.nextInt(3) != 0) {
+                ids.add(id);
+            }
+        }
+        Collections.shuffle(ids, random);
+        if (random.nextBoolean()) {
+            // Mostly sorted, like a table with a few edits.
+            Collections.sort(ids.subList(0, ids.size() / 2));
+        }
+        return toArray(ids);
+    }
+
+    static long[] toArray(List<Long> ids) {
+        long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    static List<Long> apply(ChangeSet changes, long[] oldIds, final long[] newIds) {
+        final List<Long> list = toList(oldIds);
+        // Inserted rows are only known by position, fill them in from the new ids at the end.
+        final Long inserted = -1L;
+        changes.dispatchTo(new ChangeSet.Callback() {
+            @Override
+            public void onInserted(int position) {
+                list.add(position, inserted);
+            }
+
+            @Override
+            public void onRemoved(int position) {
+                list.remove(position);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                list.add(toPosition, list.remove(fromPosition));
+            }
+        });
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == inserted) {
+                list.set(i, newIds[i]);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,121 @@
+package me.tatarka.loadie;
+
+import android.content.ContentResolver;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.support.v4.content.ShadowContentResolverCompatJellybean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = ShadowContentResolverCompatJellybean.class)
+public class ColumnarCursorLoaderTest {
+    static final String AUTHORITY = "me.tatarka.loader.TestContentProvider";
+    static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+
+    ContentResolver resolver;
+    TestContentProvider provider;
+    MatrixCursor cursor;
+    ColumnarSnapshot result;
+    Loader.Callbacks<ColumnarSnapshot> callbacks = new Loader.CallbacksAdapter<ColumnarSnapshot>() {
+        @Override
+        public void onLoaderResult(ColumnarSnapshot result) {
+            ColumnarCursorLoaderTest.this.result = result;
+        }
+    };
+
+    @Before
+    public void setup() {
+        resolver = RuntimeEnvironment.application.getContentResolver();
+        provider = new TestContentProvider();
+        ShadowContentResolver.registerProvider(AUTHORITY, provider);
+        cursor = new MatrixCursor(new String[]{"time", "value", "count", "label"});
+        cursor.addRow(new Object[]{1000L, 1.5, 1, "a"});
+        cursor.addRow(new Object[]{2000L, 2.5, 2, new String("b")});
+        cursor.addRow(new Object[]{3000L, null, null, new String("a")});
+        cursor.addRow(new Object[]{4000L, 4.5, 4, null});
+        provider.cursor = cursor;
+    }
+
+    ColumnarCursorLoader createLoader() {
+        ColumnarCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .columnar()
+                .longColumn("time")
+                .doubleColumn("value")
+                .intColumn("count")
+                .stringColumn("label")
+                .build();
+        loader.setCallbacks(callbacks);
+        return loader;
+    }
+
+    @Test
+    public void copiesColumnsAndClosesCursor() {
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        assertEquals(4, result.getCount());
+        assertArrayEquals(new long[]{1000, 2000, 3000, 4000}, result.getLongs(0));
+        assertEquals(2.5, result.getDouble(1, 1), 0);
+        assertEquals(4, result.getInt(2, 3));
+        assertEquals("b", result.getString(3, 1));
+        assertTrue(cursor.isClosed());
+    }
+
+    @Test
+    public void nullsReadAsZeroOrNull() {
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        assertEquals(0, result.getDouble(1, 2), 0);
+        assertEquals(0, result.getInt(2, 2));
+        assertNull(result.getString(3, 3));
+    }
+
+    @Test
+    public void repeatedStringsAreStoredOnce() {
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        assertSame(result.getString(3, 0), result.getString(3, 2));
+    }
+
+    @Test
+    public void getColumnIndexIsBuilderOrder() {
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        assertEquals(3, result.getColumnIndex("label"));
+        assertEquals(-1, result.getColumnIndex("missing"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readingWrongTypeThrows() {
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        result.getInt(0, 0);
+    }
+
+    @Test
+    public void nullCursorDeliversEmptySnapshot() {
+        provider.cursor = null;
+        ColumnarCursorLoader loader = createLoader();
+        loader.start();
+
+        assertEquals(0, result.getCount());
+        assertEquals(0, result.getLongs(0).length);
+    }
+}
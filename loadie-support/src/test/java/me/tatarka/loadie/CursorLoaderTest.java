@@ -8,6 +8,7 @@ import android.support.v4.content.ShadowContentResolverCompatJellybean;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
@@ -15,6 +16,7 @@ import org.robolectric.shadows.ShadowApplication;
 import org.robolectric.shadows.ShadowContentResolver;
 import org.robolectric.util.Scheduler;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -54,6 +56,12 @@ public class CursorLoaderTest {
         verify(callbacks).onLoaderResult(eq((Cursor) null));
     }
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void conflatingResultsIsRejected() {
+        CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).build();
+        loader.setConflateResults(true);
+    }
+
     @Test
     public void correctUriReturnsCursor() {
         CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).build();
@@ -79,6 +87,66 @@ public class CursorLoaderTest {
         verify(callbacks, times(2)).onLoaderResult(eq(cursor));
     }
 
+    @Test
+    public void notifyDataChangeWhileQueryingReloadsOnceAfterQueryCompletes() {
+        CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).build();
+        Loader.Callbacks<Cursor> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        ShadowApplication.runBackgroundTasks();
+        background.pause();
+        resolver.notifyChange(CONTENT_URI, null);
+        resolver.notifyChange(CONTENT_URI, null);
+        resolver.notifyChange(CONTENT_URI, null);
+
+        verify(callbacks, times(2)).onLoaderStart();
+
+        background.unPause();
+        ShadowApplication.runBackgroundTasks();
+
+        verify(callbacks, times(3)).onLoaderStart();
+        verify(callbacks, times(3)).onLoaderResult(eq(cursor));
+    }
+
+    @Test
+    public void notifyDataChangeWithinUpdateThrottleReloadsOnceAfterThrottle() {
+        CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .updateThrottle(1000)
+                .build();
+        Loader.Callbacks<Cursor> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        ShadowApplication.runBackgroundTasks();
+        resolver.notifyChange(CONTENT_URI, null);
+        resolver.notifyChange(CONTENT_URI, null);
+
+        verify(callbacks, times(1)).onLoaderStart();
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+
+        verify(callbacks, times(2)).onLoaderStart();
+        verify(callbacks, times(2)).onLoaderResult(eq(cursor));
+    }
+
+    @Test
+    public void cancelDropsThrottledReload() {
+        CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .updateThrottle(1000)
+                .build();
+        Loader.Callbacks<Cursor> callbacks = mock(Loader.Callbacks.class);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        ShadowApplication.runBackgroundTasks();
+        resolver.notifyChange(CONTENT_URI, null);
+        loader.cancel();
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+
+        verify(callbacks, times(1)).onLoaderStart();
+    }
+
     @Test
     public void cancelClosesCursorIfLoading() {
         CursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).build();
@@ -108,4 +176,30 @@ public class CursorLoaderTest {
 
         assertTrue(cursor.isClosed());
     }
+
+    @Test
+    public void trimMemoryWhileStoppedClosesCursorAndQueriesOnStart() {
+        LoaderManager loaderManager = new LoaderManager();
+        Loader.Callbacks<Cursor> callbacks = mock(Loader.Callbacks.class);
+        CursorLoader loader = loaderManager.init(0, new CursorLoader.Builder(resolver, CONTENT_URI), callbacks);
+        loaderManager.start();
+        loader.start();
+        ShadowApplication.runBackgroundTasks();
+        loaderManager.stop();
+        loaderManager.onTrimMemory(LoaderManager.TrimPolicy.TRIM_MEMORY_BACKGROUND);
+
+        assertTrue(cursor.isClosed());
+        assertFalse(loader.isRunning());
+
+        // A change while trimmed doesn't query again until started.
+        resolver.notifyChange(CONTENT_URI, null);
+        assertFalse(loader.isRunning());
+
+        loaderManager.start();
+        ShadowApplication.runBackgroundTasks();
+
+        assertTrue(loader.isRunning());
+        verify(callbacks, times(2)).onLoaderStart();
+        verify(callbacks, times(2)).onLoaderResult(eq(cursor));
+    }
 }
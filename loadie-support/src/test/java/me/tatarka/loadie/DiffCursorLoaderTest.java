@@ -0,0 +1,91 @@
+package me.tatarka.loadie;
+
+import android.content.ContentResolver;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.support.v4.content.ShadowContentResolverCompatJellybean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = ShadowContentResolverCompatJellybean.class)
+public class DiffCursorLoaderTest {
+    static final String AUTHORITY = "me.tatarka.loader.TestContentProvider";
+    static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+
+    ContentResolver resolver;
+    TestContentProvider provider;
+    DiffCursorLoader.Result result;
+    Loader.Callbacks<DiffCursorLoader.Result> callbacks = new Loader.CallbacksAdapter<DiffCursorLoader.Result>() {
+        @Override
+        public void onLoaderResult(DiffCursorLoader.Result result) {
+            DiffCursorLoaderTest.this.result = result;
+        }
+    };
+
+    @Before
+    public void setup() {
+        resolver = RuntimeEnvironment.application.getContentResolver();
+        provider = new TestContentProvider();
+        ShadowContentResolver.registerProvider(AUTHORITY, provider);
+    }
+
+    MatrixCursor setRows(long... ids) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"_id"});
+        for (long id : ids) {
+            cursor.addRow(new Object[]{id});
+        }
+        cursor.setNotificationUri(resolver, CONTENT_URI);
+        provider.cursor = cursor;
+        return cursor;
+    }
+
+    @Test
+    public void firstResultHasNoChanges() {
+        MatrixCursor cursor = setRows(1, 2, 3);
+        DiffCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).diffBy("_id").build();
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        assertEquals(cursor, result.getCursor());
+        assertNull(result.getChanges());
+    }
+
+    @Test
+    public void changeDeliversNewCursorWithChanges() {
+        MatrixCursor oldCursor = setRows(1, 2, 3);
+        DiffCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).diffBy("_id").build();
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        MatrixCursor newCursor = setRows(3, 1, 4);
+        // Robolectric dispatches changes synchronously, which breaks on closing the old cursor.
+        loader.restart();
+
+        assertEquals(newCursor, result.getCursor());
+        assertEquals(-1, newCursor.getPosition());
+        assertEquals("ChangeSet[remove 1, move 0->1, insert 2]", result.getChanges().toString());
+        assertTrue(oldCursor.isClosed());
+    }
+
+    @Test
+    public void destroyClosesCursor() {
+        MatrixCursor cursor = setRows(1, 2, 3);
+        DiffCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI).diffBy("_id").build();
+        loader.setCallbacks(callbacks);
+        loader.start();
+        loader.destroy();
+
+        assertTrue(cursor.isClosed());
+    }
+}
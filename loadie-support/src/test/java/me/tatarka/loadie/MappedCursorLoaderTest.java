@@ -0,0 +1,130 @@
+package me.tatarka.loadie;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.support.v4.content.ShadowContentResolverCompatJellybean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowContentResolver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = ShadowContentResolverCompatJellybean.class)
+public class MappedCursorLoaderTest {
+    static final String AUTHORITY = "me.tatarka.loader.TestContentProvider";
+    static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+    static final RowMapper<String> MAPPER = new RowMapper<String>() {
+        @Override
+        public String map(Cursor cursor, int[] columns) {
+            return cursor.getLong(columns[0]) + ":" + cursor.getString(columns[1]);
+        }
+    };
+
+    ContentResolver resolver;
+    TestContentProvider provider;
+    List<String> result;
+    Loader.Callbacks<List<String>> callbacks = new Loader.CallbacksAdapter<List<String>>() {
+        @Override
+        public void onLoaderResult(List<String> result) {
+            MappedCursorLoaderTest.this.result = result;
+        }
+    };
+
+    @Before
+    public void setup() {
+        resolver = RuntimeEnvironment.application.getContentResolver();
+        provider = new TestContentProvider();
+        ShadowContentResolver.registerProvider(AUTHORITY, provider);
+    }
+
+    MatrixCursor setRows(String... names) {
+        // Columns in a different order than the mapper asks for them.
+        MatrixCursor cursor = new MatrixCursor(new String[]{"name", "_id"});
+        for (int i = 0; i < names.length; i++) {
+            cursor.addRow(new Object[]{names[i], i});
+        }
+        provider.cursor = cursor;
+        return cursor;
+    }
+
+    MappedCursorLoader<String> createLoader() {
+        MappedCursorLoader<String> loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .mapRows(MAPPER, "_id", "name")
+                .build();
+        loader.setCallbacks(callbacks);
+        return loader;
+    }
+
+    @Test
+    public void mapsRowsAndClosesCursor() {
+        MatrixCursor cursor = setRows("a", "b");
+        MappedCursorLoader<String> loader = createLoader();
+        loader.start();
+
+        assertEquals(Arrays.asList("0:a", "1:b"), result);
+        assertTrue(cursor.isClosed());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void resultIsImmutable() {
+        setRows("a");
+        MappedCursorLoader<String> loader = createLoader();
+        loader.start();
+
+        result.add("b");
+    }
+
+    @Test
+    public void resultsCanBeConflated() {
+        MappedCursorLoader<String> loader = createLoader();
+        loader.setConflateResults(true);
+
+        assertTrue(loader.isConflatingResults());
+    }
+
+    @Test
+    public void nullCursorDeliversEmptyList() {
+        MappedCursorLoader<String> loader = createLoader();
+        loader.start();
+
+        assertEquals(Collections.emptyList(), result);
+    }
+
+    @Test
+    public void changeToUriReloads() {
+        setRows("a");
+        MappedCursorLoader<String> loader = createLoader();
+        loader.start();
+
+        setRows("a", "b");
+        resolver.notifyChange(CONTENT_URI, null);
+
+        assertEquals(2, provider.queryCount);
+        assertEquals(Arrays.asList("0:a", "1:b"), result);
+    }
+
+    @Test
+    public void destroyStopsObservingChanges() {
+        setRows("a");
+        MappedCursorLoader<String> loader = createLoader();
+        loader.start();
+        loader.destroy();
+
+        resolver.notifyChange(CONTENT_URI, null);
+
+        assertEquals(1, provider.queryCount);
+    }
+}
@@ -0,0 +1,286 @@
+package me.tatarka.loadie;
+
+import android.content.ContentProvider;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.support.v4.content.ShadowContentResolverCompatJellybean;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowContentResolver;
+import org.robolectric.util.Scheduler;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21, shadows = ShadowContentResolverCompatJellybean.class)
+public class PagedCursorLoaderTest {
+    static final String AUTHORITY = "me.tatarka.loader.PagedContentProvider";
+    static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+
+    Scheduler background;
+    ContentResolver resolver;
+    RowsProvider provider;
+    PagedCursorLoader.Pages pages;
+    Loader.Callbacks<PagedCursorLoader.Pages> callbacks = new Loader.CallbacksAdapter<PagedCursorLoader.Pages>() {
+        @Override
+        public void onLoaderResult(PagedCursorLoader.Pages result) {
+            pages = result;
+        }
+    };
+
+    @Before
+    public void setup() {
+        background = ShadowApplication.getInstance().getBackgroundThreadScheduler();
+        resolver = RuntimeEnvironment.application.getContentResolver();
+        provider = new RowsProvider(resolver, 250);
+        ShadowContentResolver.registerProvider(AUTHORITY, provider);
+    }
+
+    PagedCursorLoader createLoader() {
+        PagedCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .sortOrder("_id")
+                .paged()
+                .pageSize(100)
+                .prefetchDistance(10)
+                .maxPages(2)
+                .build();
+        loader.setCallbacks(callbacks);
+        return loader;
+    }
+
+    @Test
+    public void deliversFirstPage() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+
+        assertEquals(1, provider.queryCount);
+        assertEquals(100, pages.getCount());
+        assertFalse(pages.isComplete());
+        assertEquals(42, pages.moveToPosition(42).getInt(0));
+        assertNull(pages.moveToPosition(100));
+    }
+
+    @Test
+    public void loadsNextPageWithinPrefetchDistance() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+
+        loader.loadAround(50);
+        assertEquals(1, provider.queryCount);
+
+        loader.loadAround(90);
+        assertEquals(2, provider.queryCount);
+        assertEquals(200, pages.getCount());
+        assertEquals(150, pages.moveToPosition(150).getInt(0));
+    }
+
+    @Test
+    public void completesOnShortPage() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(95);
+        loader.loadAround(195);
+
+        assertEquals(250, pages.getCount());
+        assertTrue(pages.isComplete());
+        assertEquals(249, pages.moveToPosition(249).getInt(0));
+    }
+
+    @Test
+    public void releasesPagesOutsideWindow() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(95);
+        Cursor firstPage = pages.moveToPosition(0);
+        loader.loadAround(195);
+
+        assertEquals(100, pages.getFirstLoadedPosition());
+        assertNull(pages.moveToPosition(0));
+        assertTrue(firstPage.isClosed());
+    }
+
+    @Test
+    public void reloadsReleasedPageWhenScrollingBack() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(95);
+        loader.loadAround(195);
+        loader.loadAround(105);
+
+        assertEquals(0, pages.getFirstLoadedPosition());
+        assertNotNull(pages.moveToPosition(0));
+        assertFalse(pages.isComplete());
+    }
+
+    @Test
+    public void jumpingAwayReloadsAtPosition() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(240);
+
+        assertEquals(200, pages.getFirstLoadedPosition());
+        assertEquals(240, pages.moveToPosition(240).getInt(0));
+    }
+
+    @Test
+    public void changeWhileLoadingPageReloadsOnce() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+
+        background.pause();
+        loader.loadAround(95);
+        resolver.notifyChange(CONTENT_URI, null);
+        resolver.notifyChange(CONTENT_URI, null);
+        assertEquals(1, provider.queryCount);
+
+        background.unPause();
+        ShadowApplication.runBackgroundTasks();
+
+        // The page, then a reload at the last position followed by it's prefetch.
+        assertEquals(4, provider.queryCount);
+        assertEquals(200, pages.getCount());
+    }
+
+    @Test
+    public void changeWithSeveralPagesLoadedReloadsOnce() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(95);
+        assertEquals(2, provider.queryCount);
+
+        resolver.notifyChange(CONTENT_URI, null);
+
+        // A reload at the last position followed by it's prefetch.
+        assertEquals(4, provider.queryCount);
+        assertEquals(200, pages.getCount());
+    }
+
+    @Test
+    public void changesWithinUpdateThrottleReloadOnceAfterThrottle() {
+        PagedCursorLoader loader = new CursorLoader.Builder(resolver, CONTENT_URI)
+                .sortOrder("_id")
+                .updateThrottle(1000)
+                .paged()
+                .pageSize(100)
+                .prefetchDistance(10)
+                .maxPages(2)
+                .build();
+        loader.setCallbacks(callbacks);
+        loader.start();
+        loader.loadAround(95);
+        assertEquals(2, provider.queryCount);
+
+        resolver.notifyChange(CONTENT_URI, null);
+        resolver.notifyChange(CONTENT_URI, null);
+        assertEquals(2, provider.queryCount);
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+
+        // A reload at the last position followed by it's prefetch.
+        assertEquals(4, provider.queryCount);
+        assertEquals(200, pages.getCount());
+    }
+
+    @Test
+    public void reloadPastShrunkRowsStartsOver() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        loader.loadAround(240);
+        assertEquals(200, pages.getFirstLoadedPosition());
+
+        provider.rowCount = 50;
+        resolver.notifyChange(CONTENT_URI, null);
+
+        assertEquals(0, pages.getFirstLoadedPosition());
+        assertEquals(50, pages.getCount());
+        assertTrue(pages.isComplete());
+        assertEquals(49, pages.moveToPosition(49).getInt(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void conflatingResultsIsRejected() {
+        createLoader().setConflateResults(true);
+    }
+
+    @Test
+    public void destroyClosesPages() {
+        PagedCursorLoader loader = createLoader();
+        loader.start();
+        Cursor cursor = pages.moveToPosition(0);
+        loader.destroy();
+
+        assertTrue(cursor.isClosed());
+    }
+
+    static class RowsProvider extends ContentProvider {
+        static final Pattern LIMIT = Pattern.compile("LIMIT (\\d+) OFFSET (\\d+)");
+
+        final ContentResolver resolver;
+        int rowCount;
+        int queryCount;
+
+        RowsProvider(ContentResolver resolver, int rowCount) {
+            this.resolver = resolver;
+            this.rowCount = rowCount;
+        }
+
+        @Override
+        public boolean onCreate() {
+            return true;
+        }
+
+        @Override
+        public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+            queryCount++;
+            Matcher matcher = LIMIT.matcher(sortOrder);
+            if (!matcher.find()) {
+                throw new IllegalArgumentException("not paged: " + sortOrder);
+            }
+            int limit = Integer.parseInt(matcher.group(1));
+            int offset = Integer.parseInt(matcher.group(2));
+            MatrixCursor cursor = new MatrixCursor(new String[]{"_id"});
+            for (int i = offset; i < Math.min(offset + limit, rowCount); i++) {
+                cursor.addRow(new Object[]{i});
+            }
+            cursor.setNotificationUri(resolver, uri);
+            return cursor;
+        }
+
+        @Override
+        public String getType(Uri uri) {
+            return null;
+        }
+
+        @Override
+        public Uri insert(Uri uri, ContentValues values) {
+            return null;
+        }
+
+        @Override
+        public int delete(Uri uri, String selection, String[] selectionArgs) {
+            return 0;
+        }
+
+        @Override
+        public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+            return 0;
+        }
+    }
+}
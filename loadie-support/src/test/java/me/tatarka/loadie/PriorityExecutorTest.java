@@ -0,0 +1,91 @@
+package me.tatarka.loadie;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JUnit4.class)
+public class PriorityExecutorTest {
+
+    PriorityExecutor executor;
+    CountDownLatch blocked;
+    CountDownLatch done;
+    List<String> ran;
+
+    @Before
+    public void setup() {
+        executor = new PriorityExecutor(1);
+        blocked = new CountDownLatch(1);
+        ran = Collections.synchronizedList(new ArrayList<String>());
+        // Occupy the only thread so everything after is queued.
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void runsHigherPriorityFirst() throws InterruptedException {
+        done = new CountDownLatch(3);
+        executor.execute(record("low"), -1);
+        executor.execute(record("high"), 1);
+        executor.execute(record("default"), 0);
+        blocked.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("high", "default", "low"), ran);
+    }
+
+    @Test
+    public void samePriorityRunsInOrder() throws InterruptedException {
+        done = new CountDownLatch(3);
+        executor.execute(record("1"));
+        executor.execute(record("2"));
+        executor.execute(record("3"));
+        blocked.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("1", "2", "3"), ran);
+    }
+
+    @Test
+    public void setPriorityReordersQueue() throws InterruptedException {
+        done = new CountDownLatch(3);
+        PriorityExecutor.Task task = executor.execute(record("raised"), 0);
+        executor.execute(record("1"), 1);
+        executor.execute(record("2"), 1);
+        executor.setPriority(task, 2);
+        blocked.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("raised", "1", "2"), ran);
+        assertEquals(2, task.getPriority());
+    }
+
+    private Runnable record(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                ran.add(name);
+                done.countDown();
+            }
+        };
+    }
+}
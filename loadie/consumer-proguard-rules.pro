@@ -0,0 +1,4 @@
+# loadie-core looks up the main thread scheduler reflectively.
+-keep class me.tatarka.loadie.AndroidDeliverySchedulers {
+    public static me.tatarka.loadie.DeliveryScheduler mainThread();
+}
@@ -0,0 +1,18 @@
+package me.tatarka.loadie;
+
+/**
+ * Android {@link DeliveryScheduler}s.
+ */
+public final class AndroidDeliverySchedulers {
+
+    private AndroidDeliverySchedulers() {
+    }
+
+    /**
+     * Delivers on the main thread, conflated results are delivered on the next frame. This is the
+     * default when loadie is used on android.
+     */
+    public static DeliveryScheduler mainThread() {
+        return LoaderDispatcher.getInstance();
+    }
+}
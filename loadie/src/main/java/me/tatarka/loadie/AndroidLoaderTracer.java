@@ -0,0 +1,104 @@
+package me.tatarka.loadie;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A {@link LoaderTracer} that sends sections to {@link Trace} so they show up in systrace and
+ * perfetto. Install it with {@link #install()}, usually only in debug builds. Async sections
+ * spanning a loader's start to completion use the public {@code Trace.beginAsyncSection()} on API
+ * 29+ and the hidden equivalent before that, if it can't be found they are dropped.
+ */
+@TargetApi(18)
+public final class AndroidLoaderTracer implements LoaderTracer {
+
+    // Trace.TRACE_TAG_APP
+    private static final long TRACE_TAG_APP = 1L << 12;
+    private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+    private static AndroidLoaderTracer instance;
+
+    /**
+     * Starts tracing loaders with {@link Trace}. Does nothing before API 18.
+     */
+    public static synchronized void install() {
+        if (Build.VERSION.SDK_INT < 18) {
+            return;
+        }
+        if (instance == null) {
+            instance = new AndroidLoaderTracer();
+        }
+        LoaderTracing.setTracer(instance);
+    }
+
+    @Nullable
+    private final Method beginAsync;
+    @Nullable
+    private final Method endAsync;
+    private final boolean publicAsync;
+
+    private AndroidLoaderTracer() {
+        Method beginAsync = null;
+        Method endAsync = null;
+        boolean publicAsync = Build.VERSION.SDK_INT >= 29;
+        try {
+            if (publicAsync) {
+                beginAsync = Trace.class.getMethod("beginAsyncSection", String.class, int.class);
+                endAsync = Trace.class.getMethod("endAsyncSection", String.class, int.class);
+            } else {
+                beginAsync = Trace.class.getMethod("asyncTraceBegin", long.class, String.class, int.class);
+                endAsync = Trace.class.getMethod("asyncTraceEnd", long.class, String.class, int.class);
+            }
+        } catch (NoSuchMethodException | SecurityException e) {
+            beginAsync = null;
+            endAsync = null;
+        }
+        this.beginAsync = beginAsync;
+        this.endAsync = endAsync;
+        this.publicAsync = publicAsync;
+    }
+
+    @Override
+    public void beginSection(String name) {
+        Trace.beginSection(truncate(name));
+    }
+
+    @Override
+    public void endSection() {
+        Trace.endSection();
+    }
+
+    @Override
+    public void beginAsyncSection(String name, int cookie) {
+        invokeAsync(beginAsync, name, cookie);
+    }
+
+    @Override
+    public void endAsyncSection(String name, int cookie) {
+        invokeAsync(endAsync, name, cookie);
+    }
+
+    private void invokeAsync(@Nullable Method method, String name, int cookie) {
+        if (method == null) {
+            return;
+        }
+        try {
+            if (publicAsync) {
+                method.invoke(null, truncate(name), cookie);
+            } else {
+                method.invoke(null, TRACE_TAG_APP, truncate(name), cookie);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            // Tracing is best effort.
+        }
+    }
+
+    private static String truncate(String name) {
+        return name.length() <= MAX_SECTION_NAME_LENGTH ? name : name.substring(0, MAX_SECTION_NAME_LENGTH);
+    }
+}
@@ -0,0 +1,132 @@
+package me.tatarka.loadie;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.view.Choreographer;
+
+/**
+ * The default {@link DeliveryScheduler}, delivers posted callbacks for every loader in the process
+ * on the main thread. A single instance is shared so that loaders don't each carry their own
+ * {@link Handler}. Instead of removing messages when callbacks are no longer wanted, each message
+ * carries the loader's dispatch token at the time it was posted and is ignored if it no longer
+ * matches.
+ *
+ * Callbacks may also be posted to the next frame. All loaders waiting on a frame are delivered
+ * together from a single {@link Choreographer} callback, or a delayed message before jellybean.
+ */
+final class LoaderDispatcher extends Handler implements DeliveryScheduler {
+
+    private static final int MSG_DELIVER = 0;
+    private static final int MSG_FRAME = 1;
+
+    /**
+     * Stands in for vsync where {@link Choreographer} is not available.
+     */
+    private static final long FRAME_DELAY_MS = 16;
+
+    private static LoaderDispatcher instance;
+
+    static LoaderDispatcher getInstance() {
+        if (instance == null) {
+            instance = new LoaderDispatcher();
+        }
+        return instance;
+    }
+
+    private Delivery[] frameDeliveries = new Delivery[8];
+    private int[] frameTokens = new int[8];
+    private int frameCount;
+    private boolean frameScheduled;
+    private Object frameCallback;
+
+    private LoaderDispatcher() {
+        super(Looper.getMainLooper());
+    }
+
+    @Override
+    public void schedule(Delivery delivery, int token) {
+        sendMessage(obtainMessage(MSG_DELIVER, token, 0, delivery));
+    }
+
+    @Override
+    public void scheduleOnFrame(Delivery delivery, int token) {
+        if (frameCount == frameDeliveries.length) {
+            Delivery[] newDeliveries = new Delivery[frameCount * 2];
+            System.arraycopy(frameDeliveries, 0, newDeliveries, 0, frameCount);
+            frameDeliveries = newDeliveries;
+            int[] newTokens = new int[frameCount * 2];
+            System.arraycopy(frameTokens, 0, newTokens, 0, frameCount);
+            frameTokens = newTokens;
+        }
+        frameDeliveries[frameCount] = delivery;
+        frameTokens[frameCount] = token;
+        frameCount++;
+        if (!frameScheduled) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        frameScheduled = true;
+        if (Build.VERSION.SDK_INT >= 16) {
+            if (frameCallback == null) {
+                frameCallback = FrameCallbackJellybean.create(this);
+            }
+            FrameCallbackJellybean.post(frameCallback);
+        } else {
+            sendMessageDelayed(obtainMessage(MSG_FRAME), FRAME_DELAY_MS);
+        }
+    }
+
+    void doFrame() {
+        int count = frameCount;
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = frameDeliveries[i];
+            frameDeliveries[i] = null;
+            delivery.deliver(frameTokens[i]);
+        }
+        // Delivering may have posted more loaders for the next frame, move them to the front.
+        int remaining = frameCount - count;
+        System.arraycopy(frameDeliveries, count, frameDeliveries, 0, remaining);
+        System.arraycopy(frameTokens, count, frameTokens, 0, remaining);
+        for (int i = remaining; i < frameCount; i++) {
+            frameDeliveries[i] = null;
+        }
+        frameCount = remaining;
+        frameScheduled = false;
+        if (frameCount > 0) {
+            scheduleFrame();
+        }
+    }
+
+    @Override
+    public void handleMessage(Message msg) {
+        switch (msg.what) {
+            case MSG_DELIVER:
+                ((Delivery) msg.obj).deliver(msg.arg1);
+                break;
+            case MSG_FRAME:
+                doFrame();
+                break;
+        }
+    }
+
+    @TargetApi(16)
+    static class FrameCallbackJellybean {
+        static Object create(final LoaderDispatcher dispatcher) {
+            return new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    dispatcher.doFrame();
+                }
+            };
+        }
+
+        static void post(Object frameCallback) {
+            Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+        }
+    }
+}
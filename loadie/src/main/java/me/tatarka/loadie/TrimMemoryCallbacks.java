@@ -0,0 +1,35 @@
+package me.tatarka.loadie;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+
+/**
+ * Forwards {@link ComponentCallbacks2#onTrimMemory(int)} to a {@link LoaderManager} so that it can
+ * drop the results of loaders that aren't being displayed. Register it with {@link
+ * android.content.Context#registerComponentCallbacks(android.content.ComponentCallbacks)} and
+ * unregister it when the loader manager is destroyed.
+ */
+@TargetApi(14)
+public class TrimMemoryCallbacks implements ComponentCallbacks2 {
+
+    private final LoaderManager loaderManager;
+
+    public TrimMemoryCallbacks(LoaderManager loaderManager) {
+        this.loaderManager = loaderManager;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        loaderManager.onTrimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        loaderManager.onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+}
@@ -0,0 +1,111 @@
+package me.tatarka.loadie;
+
+import android.os.Build;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class LoaderDispatcherTest {
+
+    @After
+    public void teardown() {
+        ReflectionHelpers.setStaticField(Build.VERSION.class, "SDK_INT", 21);
+    }
+
+    @Test
+    public void mainThreadIsDefault() {
+        assertSame(AndroidDeliverySchedulers.mainThread(), DeliverySchedulers.getDefault());
+    }
+
+    @Test
+    public void synchronousResultIsPostedToMainThread() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        SynchronousLoader loader = new SynchronousLoader();
+        loader.setCallbacks(callbacks);
+
+        ShadowLooper.pauseMainLooper();
+        loader.start();
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        ShadowLooper.unPauseMainLooper();
+
+        verify(callbacks).onLoaderResult(eq("test"));
+        verify(callbacks).onLoaderSuccess();
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void conflatedResultsDeliverLatestOnFrame() {
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        ReceiverLoader loader = new ReceiverLoader();
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        ShadowLooper.pauseMainLooper();
+        loader.receiver.result("test1");
+        loader.receiver.result("test2");
+        loader.receiver.result("test3");
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        ShadowLooper.unPauseMainLooper();
+
+        verify(callbacks).onLoaderResult(eq("test3"));
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    @Test
+    public void conflatedResultsDeliverAfterFrameDelayBeforeJellybean() {
+        ReflectionHelpers.setStaticField(Build.VERSION.class, "SDK_INT", 15);
+        Loader.Callbacks<String> callbacks = mock(Loader.Callbacks.class);
+        ReceiverLoader loader = new ReceiverLoader();
+        loader.setConflateResults(true);
+        loader.setCallbacks(callbacks);
+        loader.start();
+
+        loader.receiver.result("test1");
+        loader.receiver.result("test2");
+        ShadowLooper.idleMainLooper(15);
+
+        verify(callbacks).onLoaderStart();
+        verifyNoMoreInteractions(callbacks);
+
+        ShadowLooper.idleMainLooper(1);
+
+        verify(callbacks).onLoaderResult(eq("test2"));
+        verifyNoMoreInteractions(callbacks);
+    }
+
+    static class SynchronousLoader extends Loader<String> {
+        @Override
+        protected void onStart(Receiver receiver) {
+            receiver.success("test");
+        }
+    }
+
+    static class ReceiverLoader extends Loader<String> {
+        Receiver receiver;
+
+        @Override
+        protected void onStart(Receiver receiver) {
+            this.receiver = receiver;
+        }
+    }
+}